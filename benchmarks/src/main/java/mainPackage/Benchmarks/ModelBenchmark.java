@@ -0,0 +1,131 @@
+package mainPackage.Benchmarks;
+
+import mainPackage.Model.AlphaBetaMinimax;
+import mainPackage.Model.Bitboard;
+import mainPackage.Model.Game;
+import mainPackage.Model.Minimax;
+import mainPackage.Model.Move;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the mainPackage.Model hot paths, each from a position where the AI (X) is to move.
+ * Run with the GC profiler to see allocation rates: java -jar benchmarks/target/benchmarks.jar -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelBenchmark {
+    /**
+     * empty: no moves yet | opening: X center, O corner | midgame: two moves each, no threats.
+     */
+    @Param({"empty", "opening", "midgame"})
+    public String position;
+
+    private Game game;
+    private int[][] board;
+    private int aiMask;
+    private int playerMask;
+    private Minimax uncachedAlphaBeta;
+
+    @Setup
+    public void setup(){
+        game = new Game(42);
+        // the AI plays X and moves first
+        game.newGame(2);
+        switch (position){
+            case "opening":
+                play(1, 1, 0, 0);
+                break;
+            case "midgame":
+                play(1, 1, 0, 0, 0, 1, 2, 1);
+                break;
+        }
+        board = game.getBoard();
+        aiMask = Bitboard.toMask(board, game.getAI_Turn());
+        playerMask = Bitboard.toMask(board, game.getPlayerTurn());
+        uncachedAlphaBeta = new AlphaBetaMinimax(game, null);
+    }
+
+    private void play(int... cells){
+        for (int i = 0; i < cells.length; i += 2)
+            game.cPlayerMove(cells[i], cells[i + 1]);
+    }
+
+    @Benchmark
+    public int checkStatusBoard(){
+        return game.checkStatus(board, 0);
+    }
+
+    @Benchmark
+    public int checkStatusMasks(){
+        return game.checkStatus(aiMask, playerMask, 0);
+    }
+
+    @Benchmark
+    public int minimaxFullTree(){
+        return game.minimax(aiMask, playerMask, true, 0);
+    }
+
+    @Benchmark
+    public int minimaxAlphaBeta(){
+        return uncachedAlphaBeta.minimax(aiMask, playerMask, true, 0);
+    }
+
+    /**
+     * Uses the process-wide transposition table, so after warm-up this measures the cached path.
+     */
+    @Benchmark
+    public int minimaxAlphaBetaShared(){
+        return game.getEngine().minimax(aiMask, playerMask, true, 0);
+    }
+
+    // The AI behaviors play on a copy so every invocation starts from the same position; see copyGame for its cost
+
+    @Benchmark
+    public Game copyGame(){
+        return new Game(game);
+    }
+
+    @Benchmark
+    public Move bestMove(){
+        Game copy = new Game(game);
+        copy.AI_bestMove();
+        return copy.getLastMove();
+    }
+
+    @Benchmark
+    public Move tableMove(){
+        Game copy = new Game(game);
+        copy.AI_tableMove();
+        return copy.getLastMove();
+    }
+
+    @Benchmark
+    public Move genericMove(){
+        Game copy = new Game(game);
+        copy.AI_genericMove();
+        return copy.getLastMove();
+    }
+
+    @Benchmark
+    public Move randomMove(){
+        Game copy = new Game(game);
+        copy.AI_randomMove();
+        return copy.getLastMove();
+    }
+}
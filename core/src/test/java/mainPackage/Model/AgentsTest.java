@@ -0,0 +1,74 @@
+package mainPackage.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the Agents registry and the think budgets the built-in agents declare.
+ */
+class AgentsTest {
+    @Test
+    void levelsAreOrderedByLevel(){
+        List<Agent> levels = Agents.levels();
+        for (int i = 1; i < levels.size(); i++)
+            assertTrue(levels.get(i - 1).getLevel() < levels.get(i).getLevel());
+        for (Agent agent : Agents.all()){
+            if (agent.getLevel() >= 0)
+                assertSame(agent, Agents.level(agent.getLevel()));
+        }
+        assertNull(Agents.level(-1));
+        // plays like table, so it is not offered
+        assertEquals(-1, Agents.get("best").getLevel());
+    }
+
+    @Test
+    void declaredBudgetsAreKept(){
+        // the full-tree search cannot stop early
+        assertEquals(0, Agents.get("best").getThinkBudgetMillis());
+        for (Agent agent : Agents.all()){
+            long budget = agent.getThinkBudgetMillis();
+            if (budget == 0)
+                continue;
+            agent.warmUp();
+            Game game = new Game(0);
+            game.newGame(2);
+            long start = System.nanoTime();
+            agent.move(game);
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            assertEquals(1, game.getMoveCount(), agent.getName());
+            assertTrue(elapsed < budget + 150, agent.getName() + " took " + elapsed + " ms of " + budget);
+        }
+    }
+
+    @Test
+    void deterministicAgentsRepeatTheirGames(){
+        Agent random = Agents.get("random");
+        for (Agent agent : Agents.all()){
+            Agent deterministic = agent.deterministic();
+            assertEquals(agent.getName(), deterministic.getName());
+            for (long seed = 0; seed < 3; seed++)
+                assertEquals(moves(deterministic, random, seed), moves(deterministic, random, seed), agent.getName());
+        }
+    }
+
+    // The cells of a game between x and o, as a string
+    private static String moves(Agent x, Agent o, long seed){
+        Game game = new Game(seed);
+        game.newGame(2);
+        while (game.getStatus() == Game.ONGOING){
+            if (game.getCurrentPlayer() != game.getAI_Turn())
+                game.swapSides();
+            (game.getCurrentPlayer() == 1 ? x : o).move(game);
+        }
+        StringBuilder moves = new StringBuilder();
+        for (int i = 0; i < game.getMoveCount(); i++)
+            moves.append(game.getMoveCell(i));
+        return moves.toString();
+    }
+}
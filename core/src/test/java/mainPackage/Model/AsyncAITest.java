@@ -0,0 +1,93 @@
+package mainPackage.Model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the results of AsyncAI requests and the cancellation of a search in progress.
+ */
+class AsyncAITest {
+    private final AsyncAI async = new AsyncAI();
+
+    @AfterEach
+    void shutdown(){
+        async.shutdown();
+    }
+
+    @Test
+    void returnsTheAgentsMove(){
+        Game game = new Game(0);
+        game.newGame(2);
+        Game expected = new Game(game);
+        expected.AI_bestMove();
+        assertEquals(expected.getLastMove(), async.computeMove(game, Game::AI_bestMove).join());
+        // the live game is not touched
+        assertEquals(0, game.getMoveCount());
+    }
+
+    @Test
+    void returnsNullWhenTheAgentDoesNotMove(){
+        Game game = new Game(0);
+        game.newGame(2);
+        game.cPlayerMove(1, 1);
+        // not the last move played, which the copy still holds
+        assertNull(async.computeMove(game, g -> { }).join());
+
+        while (game.getStatus() == Game.ONGOING){
+            if (game.getCurrentPlayer() != game.getAI_Turn())
+                game.swapSides();
+            game.AI_bestMove();
+        }
+        assertNull(async.computeMove(game, Game::AI_bestMove).join());
+    }
+
+    @Test
+    void returnsTheSearchMoveOfAnNxNGame(){
+        GeneralGame game = new GeneralGame(5, 4);
+        int[] moves = { 0, 12, 1, 18, 2 };
+        for (int move : moves)
+            game.makeMove(move);
+        assertEquals(3, async.computeMove(game, new DepthLimitedSearch(), 3, 10_000).join());
+        assertEquals(5, game.getMoveCount());
+
+        game.makeMove(6);
+        game.makeMove(3);
+        assertEquals(1, game.getWinner());
+        assertNull(async.computeMove(game, new DepthLimitedSearch(), 3, 10_000).join());
+    }
+
+    @Test
+    void cancellingStopsTheSearch() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicLong evaluations = new AtomicLong();
+        LineEvaluator lines = new LineEvaluator();
+        DepthLimitedSearch search = new DepthLimitedSearch((game, player) -> {
+            started.countDown();
+            evaluations.incrementAndGet();
+            return lines.evaluate(game, player);
+        });
+        // far more than the test can wait for: only the interrupt stops it
+        CompletableFuture<Integer> request = async.computeMove(new GeneralGame(15, 5), search, 225,
+                TimeUnit.HOURS.toMillis(1));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        request.cancel(true);
+
+        // the search notices the interrupt at its next clock check
+        long before;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        do {
+            before = evaluations.get();
+            Thread.sleep(100);
+        } while (evaluations.get() != before && System.nanoTime() < deadline);
+        assertEquals(before, evaluations.get());
+    }
+}
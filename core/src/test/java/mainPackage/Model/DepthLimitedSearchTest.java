@@ -0,0 +1,194 @@
+package mainPackage.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks DepthLimitedSearch on GeneralGame boards: against the full-tree Game.minimax on 3 x 3, against the known
+ * first-player win of 4 x 4 with 3 in a row, and the near-cell move generation of larger boards.
+ */
+class DepthLimitedSearchTest {
+    private static final Game REFERENCE = new Game();
+
+    @Test
+    void matchesFullTreeMinimaxOnEveryReachable3x3Position(){
+        DepthLimitedSearch search = new DepthLimitedSearch();
+        Set<Integer> seen = new HashSet<>();
+        int[] checked = new int[1];
+        walk(0, 0, seen, search, checked);
+        assertEquals(4520, checked[0]);
+    }
+
+    private static void walk(int x, int o, Set<Integer> seen, DepthLimitedSearch search, int[] checked){
+        if (!seen.add(x | o << 9) || Bitboard.isWin(x) || Bitboard.isWin(o) || (x | o) == Bitboard.FULL)
+            return;
+        boolean xToMove = Integer.bitCount(x) == Integer.bitCount(o);
+        int mover = xToMove ? x : o, other = xToMove ? o : x;
+
+        int bestScore = Integer.MIN_VALUE, bestMoves = 0;
+        for (int empty = Bitboard.empty(mover, other); empty != 0; empty &= empty - 1){
+            int bit = Integer.lowestOneBit(empty);
+            int score = REFERENCE.minimax(mover | bit, other, false, 0);
+            if (score > bestScore){
+                bestScore = score;
+                bestMoves = bit;
+            }
+            else if (score == bestScore)
+                bestMoves |= bit;
+        }
+
+        GeneralGame game = generalGame(x, o);
+        int move = search.bestMove(game, Bitboard.CELLS);
+        String board = Position.of(Position.pack(x, o, xToMove ? 1 : 2, 1, Game.ONGOING, 0, -1)).toString();
+        assertTrue((bestMoves & 1 << move) != 0, board);
+        assertEquals(toSearchScore(bestScore), search.getLastScore(), board);
+        checked[0]++;
+
+        for (int empty = Bitboard.empty(x, o); empty != 0; empty &= empty - 1){
+            int bit = Integer.lowestOneBit(empty);
+            if (xToMove)
+                walk(x | bit, o, seen, search, checked);
+            else
+                walk(x, o | bit, seen, search, checked);
+        }
+    }
+
+    // A 3 x 3 GeneralGame with the given cells. No subset of the cells of an ongoing position holds a win.
+    private static GeneralGame generalGame(int x, int o){
+        GeneralGame game = new GeneralGame(3, 3);
+        while (x != 0 || o != 0){
+            if (game.getCurrentPlayer() == 1){
+                game.makeMove(Integer.numberOfTrailingZeros(x));
+                x &= x - 1;
+            }
+            else {
+                game.makeMove(Integer.numberOfTrailingZeros(o));
+                o &= o - 1;
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Converts a Game.minimax score (AI_WIN - depth, PLAYER_WIN + depth or DRAW, depth counted after the root move)
+     * to the search's scale (WIN - ply, with ply 1 after the root move).
+     */
+    private static int toSearchScore(int score){
+        if (score > 0)
+            return DepthLimitedSearch.WIN - (Game.AI_WIN - score) - 1;
+        if (score < 0)
+            return -(DepthLimitedSearch.WIN - (score - Game.PLAYER_WIN) - 1);
+        return 0;
+    }
+
+    @Test
+    void firstPlayerWins4x4WithThreeInARow(){
+        DepthLimitedSearch search = new DepthLimitedSearch();
+        GeneralGame game = new GeneralGame(4, 3);
+        search.bestMove(game, 16);
+        // a proven win: WIN - ply for some ply within the board
+        assertTrue(search.getLastScore() > DepthLimitedSearch.WIN - 16, "score " + search.getLastScore());
+
+        while (!game.isOver())
+            game.makeMove(search.bestMove(game, 16));
+        assertEquals(1, game.getWinner());
+    }
+
+    @Test
+    void largeBoardsSearchNearTheTokens(){
+        DepthLimitedSearch search = new DepthLimitedSearch();
+        // 9 x 9, 4 in a row: X has three in a row on row 4 with both ends open, O has two scattered tokens
+        GeneralGame game = new GeneralGame(9, 4);
+        int[] moves = { 9 * 4 + 3, 0, 9 * 4 + 4, 80, 9 * 4 + 5, 8 };
+        for (int move : moves)
+            game.makeMove(move);
+        int move = search.bestMove(game, 2);
+        assertTrue(move == 9 * 4 + 2 || move == 9 * 4 + 6, "win in one, got " + move);
+        assertEquals(DepthLimitedSearch.WIN - 1, search.getLastScore());
+    }
+
+    @Test
+    void blocksAnImmediateThreat(){
+        DepthLimitedSearch search = new DepthLimitedSearch();
+        // 5 x 5, 4 in a row: X holds (0,0), (0,1), (0,2); O must take (0,3)
+        GeneralGame game = new GeneralGame(5, 4);
+        int[] moves = { 0, 12, 1, 18, 2 };
+        for (int move : moves)
+            game.makeMove(move);
+        assertEquals(3, search.bestMove(game, 3));
+    }
+
+    @Test
+    void returnsWithinItsTimeBudget(){
+        DepthLimitedSearch search = new DepthLimitedSearch();
+        GeneralGame game = new GeneralGame(7, 4);
+        game.makeMove(24);
+        game.makeMove(25);
+        // warm the code up so that the measured call is not dominated by the interpreter
+        search.bestMove(game, 4);
+
+        long budget = 200, tolerance = 150;
+        long start = System.nanoTime();
+        int move = search.bestMove(game, 49, budget);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(search.isTimedOut(), "the search finished before its budget; use a harder position");
+        assertTrue(elapsed < budget + tolerance, "took " + elapsed + " ms");
+        assertEquals(0, game.get(move));
+        assertTrue(search.getLastDepth() >= 1);
+    }
+
+    @Test
+    void principalVariationOrderingKeepsTheMoveAndScore(){
+        DepthLimitedSearch ordered = new DepthLimitedSearch();
+        DepthLimitedSearch natural = new DepthLimitedSearch();
+        natural.setPvOrdering(false);
+        SplittableRandom random = new SplittableRandom(5);
+        int[][] shapes = { {4, 3}, {5, 4}, {6, 4}, {7, 5} };
+        for (int[] shape : shapes){
+            for (int number = 0; number < 20; number++){
+                GeneralGame game = new GeneralGame(shape[0], shape[1]);
+                int opening = random.nextInt(shape[0] * shape[0] / 3);
+                for (int i = 0; i < opening && !game.isOver(); i++){
+                    int cell;
+                    do
+                        cell = random.nextInt(shape[0] * shape[0]);
+                    while (game.get(cell) != 0);
+                    game.makeMove(cell);
+                }
+                if (game.isOver())
+                    continue;
+                for (int depth = 1; depth <= 4; depth++){
+                    int move = ordered.bestMove(game, depth);
+                    assertEquals(natural.bestMove(game, depth), move);
+                    assertEquals(natural.getLastScore(), ordered.getLastScore());
+                    assertEquals(natural.getLastDepth(), ordered.getLastDepth());
+                }
+            }
+        }
+    }
+
+    @Test
+    void evaluationIsClampedOnLargeBoards(){
+        // 200 x 200, 8 in a row: X fills the top 50 rows (worth more than an int can hold),
+        // O is spread on a checkerboard further down so that its windows are worth little
+        int size = 200;
+        GeneralGame game = new GeneralGame(size, 8);
+        int next = 60 * size;
+        for (int cell = 0; cell < 50 * size; cell++){
+            game.makeMove(cell);
+            while ((next / size + next % size) % 2 != 0)
+                next++;
+            game.makeMove(next);
+            next++;
+        }
+        LineEvaluator evaluator = new LineEvaluator();
+        assertEquals(LineEvaluator.MAX_SCORE, evaluator.evaluate(game, 1));
+        assertEquals(-LineEvaluator.MAX_SCORE, evaluator.evaluate(game, 2));
+    }
+}
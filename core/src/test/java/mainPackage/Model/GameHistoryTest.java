@@ -0,0 +1,98 @@
+package mainPackage.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks the incremental state of Game (hash, status, current player, published position) against values
+ * recomputed from the board, through random games played to the end, undone to the start and redone.
+ */
+class GameHistoryTest {
+    private static final int GAMES = 20_000;
+
+    @Test
+    void incrementalStateMatchesBoardThroughUndoAndRedo(){
+        SplittableRandom random = new SplittableRandom(1);
+        for (int number = 0; number < GAMES; number++){
+            Game game = new Game(random.nextLong());
+            game.newGame(1 + random.nextInt(2));
+            List<Integer> statuses = new ArrayList<>();
+            List<Integer> players = new ArrayList<>();
+            List<Integer> hashes = new ArrayList<>();
+            while (game.getStatus() == Game.ONGOING){
+                statuses.add(game.getStatus());
+                players.add(game.getCurrentPlayer());
+                hashes.add(game.getHash());
+                int empty = Bitboard.empty(game.getMask(1), game.getMask(2));
+                int cell = Bitboard.nthCell(empty, random.nextInt(Integer.bitCount(empty)));
+                game.cPlayerMove(cell / Game.COLS, cell % Game.COLS);
+                assertConsistent(game);
+            }
+            int status = game.getStatus();
+            int moves = game.getMoveCount();
+
+            for (int i = moves - 1; i >= 0; i--){
+                game.undo();
+                assertEquals(statuses.get(i), game.getStatus());
+                assertEquals(players.get(i), game.getCurrentPlayer());
+                assertEquals(hashes.get(i), game.getHash());
+                assertConsistent(game);
+            }
+            assertFalse(game.canUndo());
+
+            while (game.redo())
+                assertConsistent(game);
+            assertEquals(status, game.getStatus());
+            assertEquals(moves, game.getMoveCount());
+        }
+    }
+
+    @Test
+    void swappingSidesKeepsTheStatusThroughUndoAndRedo(){
+        SplittableRandom random = new SplittableRandom(2);
+        for (int number = 0; number < GAMES; number++){
+            Game game = new Game(random.nextLong());
+            game.newGame(1 + random.nextInt(2));
+            while (game.getStatus() == Game.ONGOING){
+                int empty = Bitboard.empty(game.getMask(1), game.getMask(2));
+                int cell = Bitboard.nthCell(empty, random.nextInt(Integer.bitCount(empty)));
+                game.cPlayerMove(cell / Game.COLS, cell % Game.COLS);
+                if (random.nextInt(3) == 0)
+                    game.swapSides();
+                assertConsistent(game);
+            }
+            while (game.undo()){
+                if (random.nextInt(3) == 0)
+                    game.swapSides();
+                assertConsistent(game);
+            }
+            while (game.redo()){
+                if (random.nextInt(3) == 0)
+                    game.swapSides();
+                assertConsistent(game);
+            }
+        }
+    }
+
+    private static void assertConsistent(Game game){
+        int x = game.getMask(1), o = game.getMask(2);
+        assertEquals(Bitboard.index(x, o), game.getHash());
+        // a copy recomputes its status from the whole board
+        Game copy = new Game(game);
+        copy.updateStatus();
+        assertEquals(copy.getStatus(), game.getStatus());
+
+        Position position = game.getPosition();
+        assertEquals(x, position.getMask(1));
+        assertEquals(o, position.getMask(2));
+        assertEquals(game.getStatus(), position.getStatus());
+        assertEquals(game.getCurrentPlayer(), position.getCurrentPlayer());
+        assertEquals(game.getMoveCount(), position.getMoveCount());
+    }
+}
@@ -0,0 +1,91 @@
+package mainPackage.Model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that GameRecords survive a round trip through GameRecordWriter and GameRecordReader across segments,
+ * and that malformed records are rejected.
+ */
+class GameRecordTest {
+    private static final int GAMES = 1000;
+
+    @Test
+    void recordsRollOverSegmentsAndReplayToTheSameWinner(@TempDir Path directory) throws IOException {
+        SplittableRandom random = new SplittableRandom(11);
+        List<GameRecord> written = new ArrayList<>();
+        // small segments, so that the records span many of them
+        try (GameRecordWriter writer = new GameRecordWriter(directory, 1024)){
+            for (int number = 0; number < GAMES; number++){
+                long seed = random.nextLong();
+                Game game = new Game(seed);
+                game.newGame(2);
+                while (game.getStatus() == Game.ONGOING){
+                    if (game.getCurrentPlayer() != game.getAI_Turn())
+                        game.swapSides();
+                    game.AI_randomMove();
+                }
+                GameRecord record = GameRecord.of(game, 0, 1, -1, seed);
+                writer.append(record);
+                written.add(record);
+            }
+        }
+        assertTrue(GameRecordReader.segments(directory).size() > 1);
+
+        try (GameRecordReader reader = new GameRecordReader(directory)){
+            for (GameRecord expected : written){
+                GameRecord record = reader.next();
+                assertEquals(expected.getSeed(), record.getSeed());
+                assertEquals(expected.getWinner(), record.getWinner());
+                assertEquals(expected.getMoveCount(), record.getMoveCount());
+                for (int i = 0; i < record.getMoveCount(); i++){
+                    assertEquals(expected.getMoveCell(i), record.getMoveCell(i));
+                    assertEquals(expected.getMovePlayer(i), record.getMovePlayer(i));
+                }
+                assertEquals(record.getWinner(), record.replay().getWinner());
+            }
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void recordsKeepTheirOwnMoves(){
+        byte[] moves = { 4 | 1 << 4, 0 | 2 << 4 };
+        GameRecord record = new GameRecord(0, 1, -1, 0, 0, moves);
+        moves[0] = 8 | 1 << 4;
+        assertEquals(4, record.getMoveCell(0));
+    }
+
+    @Test
+    void malformedRecordsAreRejected(){
+        // ten moves
+        assertInvalid(10, 0, new byte[0]);
+        // winner 3
+        assertInvalid(0, 3, new byte[0]);
+        // cell 9
+        assertInvalid(1, 0, new byte[] { 9 | 1 << 4 });
+        // cell 4 twice
+        assertInvalid(2, 0, new byte[] { 4 | 1 << 4, 4 | 2 << 4 });
+        // X twice
+        assertInvalid(2, 0, new byte[] { 4 | 1 << 4, 0 | 1 << 4 });
+    }
+
+    private static void assertInvalid(int count, int winner, byte[] moves){
+        ByteBuffer buffer = ByteBuffer.allocate(GameRecord.HEADER_BYTES + Math.max(count, moves.length));
+        buffer.put((byte) 0).put((byte) 1).put((byte) -1).put((byte) (winner | count << 2)).putLong(0).put(moves);
+        buffer.flip();
+        assertThrows(IOException.class, () -> GameRecord.read(buffer));
+    }
+}
@@ -0,0 +1,90 @@
+package mainPackage.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks GeneralGame's incremental win check against a scan of the whole board.
+ */
+class GeneralGameTest {
+    private static final int[][] SHAPES = { {3, 3}, {4, 3}, {5, 4}, {7, 5}, {10, 5} };
+
+    @Test
+    void incrementalWinMatchesFullScan(){
+        SplittableRandom random = new SplittableRandom(3);
+        for (int[] shape : SHAPES){
+            for (int number = 0; number < 2000; number++){
+                GeneralGame game = new GeneralGame(shape[0], shape[1]);
+                while (!game.isOver()){
+                    int cell;
+                    do
+                        cell = random.nextInt(shape[0] * shape[0]);
+                    while (game.get(cell) != 0);
+                    int player = game.getCurrentPlayer();
+                    assertTrue(game.place(cell / shape[0], cell % shape[0]));
+                    assertEquals(scanForWinner(game), game.getWinner());
+                    // nobody moves after a win, so any winner is the player who just moved
+                    if (game.getWinner() != 0)
+                        assertEquals(player, game.getWinner());
+                }
+                assertFalse(game.place(0, 0));
+            }
+        }
+    }
+
+    @Test
+    void unmakeMoveRestoresThePosition(){
+        GeneralGame game = new GeneralGame(4, 3);
+        game.makeMove(0);
+        game.makeMove(5);
+        game.makeMove(1);
+        game.makeMove(6);
+        game.makeMove(2);
+        assertEquals(1, game.getWinner());
+        assertTrue(game.isOver());
+        game.unmakeMove(2);
+        assertEquals(0, game.getWinner());
+        assertEquals(1, game.getCurrentPlayer());
+        assertEquals(4, game.getMoveCount());
+        assertEquals(0, game.get(2));
+    }
+
+    @Test
+    void invalidMovesAreRejected(){
+        GeneralGame game = new GeneralGame(3, 3);
+        assertTrue(game.place(1, 1));
+        assertFalse(game.place(1, 1));
+        assertFalse(game.place(3, 0));
+        assertFalse(game.place(0, -1));
+        assertEquals(1, game.getMoveCount());
+    }
+
+    // Winner by checking every run of K cells in the four directions
+    private static int scanForWinner(GeneralGame game){
+        int size = game.getSize(), length = game.getWinLength();
+        int[][] directions = { {0, 1}, {1, 0}, {1, 1}, {1, -1} };
+        for (int row = 0; row < size; row++){
+            for (int col = 0; col < size; col++){
+                int player = game.get(row * size + col);
+                if (player == 0)
+                    continue;
+                for (int[] direction : directions){
+                    int i = 1;
+                    for (; i < length; i++){
+                        int r = row + direction[0] * i, c = col + direction[1] * i;
+                        if (r < 0 || r >= size || c < 0 || c >= size || game.get(r * size + c) != player)
+                            break;
+                    }
+                    if (i == length)
+                        return player;
+                }
+            }
+        }
+        return 0;
+    }
+}
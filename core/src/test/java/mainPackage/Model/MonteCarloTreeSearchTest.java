@@ -0,0 +1,86 @@
+package mainPackage.Model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks MonteCarloTreeSearch with one thread and no time budget, which makes each search reproducible from its
+ * seed, and the visit counts of a search on several threads.
+ */
+class MonteCarloTreeSearchTest {
+    private static final int ITERATIONS = 20_000;
+    private static final int SEEDS = 10;
+
+    private static MonteCarloTreeSearch search(int threads){
+        MonteCarloTreeSearch search = new MonteCarloTreeSearch();
+        search.setIterations(ITERATIONS);
+        search.setTimeBudget(0);
+        search.setThreads(threads);
+        return search;
+    }
+
+    private static int mask(int... cells){
+        int mask = 0;
+        for (int cell : cells)
+            mask |= 1 << cell;
+        return mask;
+    }
+
+    @Test
+    void neverLosesToBestMove(){
+        MonteCarloTreeSearch search = search(1);
+        for (int seed = 0; seed < SEEDS; seed++){
+            for (int side = 1; side <= 2; side++){
+                Game game = new Game(seed);
+                // the Monte Carlo side plays as the AI, the minimax side after a swap
+                game.newGame(side == 1 ? 2 : 1);
+                while (game.getStatus() == Game.ONGOING){
+                    if (game.getCurrentPlayer() == side){
+                        if (game.getAI_Turn() != side)
+                            game.swapSides();
+                        game.AI_monteCarloMove(search);
+                    }
+                    else {
+                        if (game.getAI_Turn() == side)
+                            game.swapSides();
+                        game.AI_bestMove();
+                    }
+                }
+                assertNotEquals(3 - side, game.getWinner(), "seed " + seed + ", side " + side);
+            }
+        }
+    }
+
+    @Test
+    void findsAWinInOne(){
+        MonteCarloTreeSearch search = search(1);
+        // X: 0 1 . / O: 3 4 . / X to move wins at 2, rather than blocking at 5
+        for (int seed = 0; seed < SEEDS; seed++)
+            assertEquals(2, search.search(mask(0, 1, 7), mask(3, 4), seed));
+    }
+
+    @Test
+    void blocksAForcedLoss(){
+        MonteCarloTreeSearch search = search(1);
+        // X: 0 1 . / O in the center, to move: only 2 stops X
+        for (int seed = 0; seed < SEEDS; seed++)
+            assertEquals(2, search.search(mask(4), mask(0, 1), seed));
+        // O: 2 4 (6 wins), X to move must take 6
+        for (int seed = 0; seed < SEEDS; seed++)
+            assertEquals(6, search.search(mask(0, 1), mask(2, 4), seed));
+    }
+
+    @Test
+    void everyIterationIsCountedOnSeveralThreads(){
+        MonteCarloTreeSearch search = search(4);
+        for (int seed = 0; seed < SEEDS; seed++){
+            int cell = search.search(0, 0, seed);
+            // the virtual losses are all taken back, one visit per playout remains
+            assertEquals(ITERATIONS, search.getRootVisits());
+            assertTrue(cell >= 0 && cell < Bitboard.CELLS);
+        }
+    }
+}
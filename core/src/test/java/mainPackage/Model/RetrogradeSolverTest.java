@@ -0,0 +1,95 @@
+package mainPackage.Model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the retrograde solver against the 3 x 3 MoveTable on every index, and its reachability rule on 4 x 4.
+ */
+class RetrogradeSolverTest {
+    private static RetrogradeSolver solver;
+
+    @BeforeAll
+    static void solve(){
+        solver = new RetrogradeSolver(3, 3).solve(2);
+    }
+
+    @Test
+    void matchesTheMoveTableOn3x3(){
+        MoveTable table = MoveTable.get();
+        int legal = 0;
+        for (int index = 0; index < solver.getValues().length; index++){
+            int x = 0, o = 0, rest = index;
+            for (int cell = 0; cell < Bitboard.CELLS; cell++, rest /= 3){
+                if (rest % 3 == 1)
+                    x |= 1 << cell;
+                else if (rest % 3 == 2)
+                    o |= 1 << cell;
+            }
+            int outcome = solver.outcome(index);
+            if (outcome == RetrogradeSolver.ILLEGAL)
+                continue;
+            legal++;
+            boolean xToMove = Integer.bitCount(x) == Integer.bitCount(o);
+            int mover = xToMove ? x : o, other = xToMove ? o : x;
+            if (Bitboard.isWin(other)){
+                assertEquals(RetrogradeSolver.LOSS, outcome);
+                assertEquals(0, solver.distance(index));
+                continue;
+            }
+            int empty = Integer.bitCount(Bitboard.empty(x, o));
+            if (empty == 0){
+                assertEquals(RetrogradeSolver.DRAW, outcome);
+                continue;
+            }
+
+            // table scores: AI_WIN - depth for a win, PLAYER_WIN + depth for a loss, the root move being depth 0
+            int score = table.score(mover, other);
+            String board = x + "/" + o;
+            if (score > 0){
+                assertEquals(RetrogradeSolver.WIN, outcome, board);
+                assertEquals(Game.AI_WIN - score + 1, solver.distance(index), board);
+            }
+            else if (score < 0){
+                assertEquals(RetrogradeSolver.LOSS, outcome, board);
+                assertEquals(score - Game.PLAYER_WIN + 1, solver.distance(index), board);
+            }
+            else {
+                assertEquals(RetrogradeSolver.DRAW, outcome, board);
+                assertEquals(empty, solver.distance(index), board);
+            }
+            assertTrue((table.bestMoves(mover, other) & 1 << solver.bestMove(index)) != 0, board);
+        }
+        // the positions reachable in play
+        assertEquals(5478, legal);
+    }
+
+    @Test
+    void positionsWithTwoSeparateLinesCannotOccur(){
+        RetrogradeSolver fourByFour = new RetrogradeSolver(4, 3).solve(2);
+        assertEquals(RetrogradeSolver.WIN, fourByFour.outcome(0));
+
+        // X has rows 0 and 2, which share no cell: no single move completed both
+        assertEquals(RetrogradeSolver.ILLEGAL, fourByFour.outcome(index(4, new int[] { 0, 1, 2, 8, 9, 10 },
+                new int[] { 4, 5, 12, 13, 15 })));
+        // two lines through a shared corner: the corner was the winning move
+        assertEquals(RetrogradeSolver.LOSS, fourByFour.outcome(index(4, new int[] { 0, 1, 2, 4, 8 },
+                new int[] { 5, 7, 11, 14 })));
+    }
+
+    // Base-3 index of the position with the given X and O cells
+    private static int index(int size, int[] x, int[] o){
+        int[] tokens = new int[size * size];
+        for (int cell : x)
+            tokens[cell] = 1;
+        for (int cell : o)
+            tokens[cell] = 2;
+        int index = 0;
+        for (int cell = tokens.length - 1; cell >= 0; cell--)
+            index = index * 3 + tokens[cell];
+        return index;
+    }
+}
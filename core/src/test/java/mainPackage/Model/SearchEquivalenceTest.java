@@ -0,0 +1,162 @@
+package mainPackage.Model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the faster move pickers against the full-tree Game.minimax on every reachable position.
+ * The reference best moves of a position are all the cells with the highest minimax score; the AI behaviors pick
+ * the lowest of them, as the original row-major scan with a strict comparison did.
+ */
+class SearchEquivalenceTest {
+    private static final Game REFERENCE = new Game();
+
+    // Reachable positions as (X cells, O cells), terminal ones included
+    private static final List<int[]> POSITIONS = new ArrayList<>();
+
+    @BeforeAll
+    static void collect(){
+        walk(0, 0, new HashSet<>());
+    }
+
+    private static void walk(int x, int o, Set<Integer> seen){
+        if (!seen.add(x | o << 9))
+            return;
+        POSITIONS.add(new int[] { x, o });
+        if (isTerminal(x, o))
+            return;
+        boolean xToMove = Integer.bitCount(x) == Integer.bitCount(o);
+        for (int empty = Bitboard.empty(x, o); empty != 0; empty &= empty - 1){
+            int bit = Integer.lowestOneBit(empty);
+            if (xToMove)
+                walk(x | bit, o, seen);
+            else
+                walk(x, o | bit, seen);
+        }
+    }
+
+    private static boolean isTerminal(int x, int o){
+        return Bitboard.isWin(x) || Bitboard.isWin(o) || (x | o) == Bitboard.FULL;
+    }
+
+    private static int mover(int[] position){
+        return Integer.bitCount(position[0]) == Integer.bitCount(position[1]) ? position[0] : position[1];
+    }
+
+    private static int other(int[] position){
+        return Integer.bitCount(position[0]) == Integer.bitCount(position[1]) ? position[1] : position[0];
+    }
+
+    // Every cell with the best full-tree score for the side to move
+    private static int referenceBestMoves(int mover, int other){
+        int bestScore = Integer.MIN_VALUE, bestMoves = 0;
+        for (int empty = Bitboard.empty(mover, other); empty != 0; empty &= empty - 1){
+            int bit = Integer.lowestOneBit(empty);
+            int score = REFERENCE.minimax(mover | bit, other, false, 0);
+            if (score > bestScore){
+                bestScore = score;
+                bestMoves = bit;
+            }
+            else if (score == bestScore)
+                bestMoves |= bit;
+        }
+        return bestMoves;
+    }
+
+    private static int referenceScore(int mover, int other){
+        int bestScore = Integer.MIN_VALUE;
+        for (int empty = Bitboard.empty(mover, other); empty != 0; empty &= empty - 1)
+            bestScore = Math.max(bestScore, REFERENCE.minimax(mover | Integer.lowestOneBit(empty), other, false, 0));
+        return bestScore;
+    }
+
+    // A game in the position with the AI to move. Any move order works, since no subset of the cells of an
+    // ongoing position holds a win.
+    private static Game gameAt(int x, int o){
+        Game game = new Game(0);
+        game.newGame(2);
+        for (int xs = x, os = o; xs != 0 || os != 0; ){
+            int cell = Integer.numberOfTrailingZeros(game.getCurrentPlayer() == 1 ? xs : os);
+            if (game.getCurrentPlayer() == 1)
+                xs &= xs - 1;
+            else
+                os &= os - 1;
+            game.cPlayerMove(cell / Game.COLS, cell % Game.COLS);
+        }
+        if (game.getCurrentPlayer() != game.getAI_Turn())
+            game.swapSides();
+        return game;
+    }
+
+    @Test
+    void everyReachablePositionIsVisited(){
+        long ongoing = POSITIONS.stream().filter(p -> !isTerminal(p[0], p[1])).count();
+        assertEquals(5478, POSITIONS.size());
+        assertEquals(4520, ongoing);
+    }
+
+    @Test
+    void bestMoveMatchesFullTreeMinimax(){
+        for (int[] position : POSITIONS){
+            if (isTerminal(position[0], position[1]))
+                continue;
+            Game game = gameAt(position[0], position[1]);
+            String board = game.getPosition().toString();
+            game.AI_bestMove();
+            int expected = Integer.numberOfTrailingZeros(referenceBestMoves(mover(position), other(position)));
+            assertEquals(expected, game.getLastMove().getCell(), board);
+        }
+    }
+
+    @Test
+    void tableMoveMatchesFullTreeMinimax(){
+        for (int[] position : POSITIONS){
+            if (isTerminal(position[0], position[1]))
+                continue;
+            Game game = gameAt(position[0], position[1]);
+            String board = game.getPosition().toString();
+            game.AI_tableMove();
+            int expected = Integer.numberOfTrailingZeros(referenceBestMoves(mover(position), other(position)));
+            assertEquals(expected, game.getLastMove().getCell(), board);
+        }
+    }
+
+    @Test
+    void moveTableMatchesFullTreeMinimax(){
+        MoveTable table = MoveTable.get();
+        for (int[] position : POSITIONS){
+            int mover = mover(position), other = other(position);
+            if (isTerminal(position[0], position[1])){
+                assertEquals(0, table.bestMoves(mover, other));
+                continue;
+            }
+            assertEquals(referenceBestMoves(mover, other), table.bestMoves(mover, other));
+            assertEquals(referenceScore(mover, other), table.score(mover, other));
+        }
+    }
+
+    @Test
+    void positionEvaluatorMatchesFullTreeMinimax(){
+        int[] packed = new int[POSITIONS.size()];
+        for (int i = 0; i < packed.length; i++)
+            packed[i] = PositionEvaluator.pack(POSITIONS.get(i)[0], POSITIONS.get(i)[1]);
+        int[] results = PositionEvaluator.evaluate(packed);
+        for (int i = 0; i < packed.length; i++){
+            int[] position = POSITIONS.get(i);
+            if (isTerminal(position[0], position[1])){
+                assertEquals(0, PositionEvaluator.bestMoves(results[i]));
+                continue;
+            }
+            int mover = mover(position), other = other(position);
+            assertEquals(referenceBestMoves(mover, other), PositionEvaluator.bestMoves(results[i]));
+            assertEquals(referenceScore(mover, other), PositionEvaluator.score(results[i]));
+        }
+    }
+}
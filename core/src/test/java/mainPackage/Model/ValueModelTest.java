@@ -0,0 +1,59 @@
+package mainPackage.Model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Trains the model the core build bundles and checks its play and that the bundled resource is that model.
+ */
+class ValueModelTest {
+    private static final int GAMES = 2000;
+
+    private static ByteBuffer trained;
+
+    @BeforeAll
+    static void train(){
+        ValueTrainer trainer = new ValueTrainer(ValueTrainer.BUNDLED_SEED);
+        trainer.train(ValueTrainer.BUNDLED_EPISODES, 1);
+        trained = trainer.getTable().toBuffer();
+    }
+
+    @Test
+    void neverLosesToRandomMoves(){
+        ValueModel model = ValueModel.of(trained);
+        for (int number = 0; number < GAMES; number++){
+            for (int learner = 1; learner <= 2; learner++){
+                Game game = new Game(number);
+                // the random side plays as the AI
+                game.newGame(learner);
+                while (game.getStatus() == Game.ONGOING){
+                    if (game.getCurrentPlayer() == learner){
+                        int cell = model.bestMove(game.getMask(learner), game.getMask(3 - learner));
+                        game.cPlayerMove(cell / Game.COLS, cell % Game.COLS);
+                    }
+                    else
+                        game.AI_randomMove();
+                }
+                assertNotEquals(3 - learner, game.getWinner(), "game " + number + ", learner " + learner);
+            }
+        }
+    }
+
+    @Test
+    void bundledModelIsTheReproducibleTrainingRun() throws IOException {
+        try (InputStream in = ValueModel.class.getResourceAsStream(ValueModel.RESOURCE)){
+            assertNotNull(in, "the core build bundles " + ValueModel.RESOURCE);
+            byte[] expected = new byte[trained.remaining()];
+            trained.duplicate().get(expected);
+            assertArrayEquals(expected, in.readAllBytes());
+        }
+    }
+}
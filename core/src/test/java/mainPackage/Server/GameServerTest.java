@@ -0,0 +1,149 @@
+package mainPackage.Server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a GameServer on a free loopback port over HTTP: routing, status codes, the session limit, idle eviction
+ * and session ids.
+ */
+class GameServerTest {
+    private static final Pattern ID = Pattern.compile("\"id\":\"([^\"]*)\"");
+
+    private GameServer server;
+
+    private SessionTable start(int capacity, long idleTimeoutSeconds) throws IOException {
+        SessionTable sessions = new SessionTable(capacity, idleTimeoutSeconds);
+        server = new GameServer(0, 2, sessions);
+        server.start();
+        return sessions;
+    }
+
+    @AfterEach
+    void stop(){
+        if (server != null)
+            server.stop();
+    }
+
+    // Status code and body of a request
+    private static final class Response {
+        final int code;
+        final String body;
+
+        Response(int code, String body){
+            this.code = code;
+            this.body = body;
+        }
+
+        String id(){
+            Matcher matcher = ID.matcher(body);
+            assertTrue(matcher.find(), body);
+            return matcher.group(1);
+        }
+    }
+
+    private Response request(String method, String path) throws IOException {
+        URL url = new URL("http://localhost:" + server.getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setRequestMethod(method);
+            int code = connection.getResponseCode();
+            InputStream in = code < 400 ? connection.getInputStream() : connection.getErrorStream();
+            String body = in == null ? "" : new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return new Response(code, body);
+        }
+        finally {
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    void routesOnlyTheGamesResource() throws IOException {
+        start(10, 60);
+        assertEquals(404, request("POST", "/gamesfoo").code);
+        assertEquals(404, request("GET", "/gamesfoo/anything").code);
+        assertEquals(405, request("GET", "/games").code);
+
+        String id = request("POST", "/games?human=1&level=0").id();
+        assertEquals(200, request("GET", "/games/" + id).code);
+        assertEquals(404, request("GET", "/games/" + id + "/move/extra").code);
+        assertEquals(405, request("PUT", "/games/" + id).code);
+        assertEquals(405, request("GET", "/games/" + id + "/ai").code);
+        assertEquals(404, request("GET", "/games/0123456789abcdef0123456789abcdef").code);
+        assertEquals(400, request("POST", "/games?human=3").code);
+        assertEquals(400, request("POST", "/games/" + id + "/move?row=x").code);
+    }
+
+    @Test
+    void playsAGame() throws IOException {
+        start(10, 60);
+        String id = request("POST", "/games?human=1&level=0").id();
+        Response move = request("POST", "/games/" + id + "/move?row=1&col=1");
+        assertEquals(200, move.code);
+        assertTrue(move.body.contains("\"board\":\"....X....\""), move.body);
+        // the computer's turn
+        assertEquals(409, request("POST", "/games/" + id + "/move?row=0&col=0").code);
+        assertEquals(200, request("POST", "/games/" + id + "/ai").code);
+        assertEquals(409, request("POST", "/games/" + id + "/ai").code);
+        // a taken cell
+        assertEquals(409, request("POST", "/games/" + id + "/move?row=1&col=1").code);
+
+        assertEquals(204, request("DELETE", "/games/" + id).code);
+        assertEquals(404, request("GET", "/games/" + id).code);
+    }
+
+    @Test
+    void refusesGamesBeyondTheLimit() throws IOException {
+        SessionTable sessions = start(2, 60);
+        String first = request("POST", "/games").id();
+        assertEquals(201, request("POST", "/games").code);
+        assertEquals(503, request("POST", "/games").code);
+        assertEquals(2, sessions.size());
+
+        assertEquals(204, request("DELETE", "/games/" + first).code);
+        assertEquals(201, request("POST", "/games").code);
+    }
+
+    @Test
+    void evictsIdleSessions() throws IOException {
+        SessionTable sessions = start(10, 60);
+        String id = request("POST", "/games?level=0").id();
+        // used within the timeout
+        assertEquals(0, sessions.evictIdle());
+        assertEquals(200, request("GET", "/games/" + id).code);
+        server.stop();
+
+        // a zero timeout makes every session idle
+        sessions = start(10, 0);
+        id = request("POST", "/games?level=0").id();
+        sessions.evictIdle();
+        assertEquals(0, sessions.size());
+        assertEquals(404, request("GET", "/games/" + id).code);
+        // the freed slot can be used again
+        assertEquals(201, request("POST", "/games?level=0").code);
+    }
+
+    @Test
+    void sessionIdsAreLongAndUnique() throws IOException {
+        start(200, 60);
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 100; i++){
+            String id = request("POST", "/games?level=0").id();
+            assertTrue(id.matches("[0-9a-f]{32}"), id);
+            assertTrue(ids.add(id), id);
+        }
+    }
+}
@@ -1,8 +1,7 @@
 package mainPackage;
 
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -10,8 +9,8 @@ import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Pane;
@@ -21,13 +20,18 @@ import mainPackage.Model.*;
 import javafx.event.Event;
 import javafx.event.EventHandler;
 
-public class GameWindowController implements EventHandler<Event>
+import java.util.concurrent.CompletableFuture;
+
+public class GameWindowController implements EventHandler<Event>, GameListener
 {
     // Controller Attributes
-    private final int rationality;
+    private final Agent agent;
     private final Game gameInstance;
     private ImageView[][] grid;
-    Timeline timeline;
+    private int[][] rendered;
+    private CompletableFuture<Move> pendingMove;
+    private Duration thinkDelay = Duration.ZERO;
+    private boolean replaying;
 
     // JavaFX Components
     @FXML
@@ -42,13 +46,23 @@ public class GameWindowController implements EventHandler<Event>
     @FXML
     Button newRoundButton;
 
+    @FXML
+    Button undoButton;
+
+    @FXML
+    Button redoButton;
+
+    @FXML
+    Label metricsLabel;
+
     // Controller Constructor
-    public GameWindowController(int rationality, boolean playAsX)
+    public GameWindowController(Agent agent, boolean playAsX)
     {
-        this.rationality = rationality;
+        this.agent = agent;
         this.gameInstance = new Game();
         this.gameInstance.newGame(playAsX ? 1 : 2);
         this.grid = new ImageView[3][3];
+        this.rendered = new int[3][3];
     }
 
     // JavaFX Initialization
@@ -74,60 +88,8 @@ public class GameWindowController implements EventHandler<Event>
                 mainGrid.add(pane, j, i);
             }
 
-        // Initialize the Board Updater (10 FPS)
-        this.timeline = new Timeline(new KeyFrame(Duration.seconds(1), e ->
-        {
-            // Check if Game Over
-            if(this.gameInstance.getStatus() == 999)
-            {
-                // Check if AI Move
-                if(this.gameInstance.getAI_Turn() == this.gameInstance.getCurrentPlayer())
-                {
-                    displayPrompt("AI Move");
-
-                    // Move AI
-                    switch(this.rationality)
-                    {
-                        case 0: // Random
-                            this.gameInstance.AI_randomMove();
-                            break;
-                        case 1: // Level 1
-                            this.gameInstance.AI_genericMove();
-                            break;
-                        case 2: // Best Move
-                            this.gameInstance.AI_bestMove();
-                            break;
-                        case 3: // Mashin Lerning
-                            break;
-                    }
-                    updateBoard();
-                }
-            }
-            else
-            {
-                // Display Game Over
-                switch(this.gameInstance.getStatus())
-                {
-                    case 0: // Tie
-                        displayPrompt("It's a tie!");
-                        break;
-                    case 10: // AI Wins
-                        displayPrompt("Computer Wins!");
-                        break;
-                    case -10: // Player Wins
-                        displayPrompt("Human Wins!");
-                        break;
-                    default:
-                        displayPrompt("If you are seeing this, this is a bug.");
-                }
-                this.timeline.stop();
-                this.backButton.setDisable(false);
-                this.newRoundButton.setDisable(false);
-            }
-
-        }));
-            this.timeline.setCycleCount(Animation.INDEFINITE);
-            this.timeline.play();
+        // React to moves and game over instead of polling
+        this.gameInstance.addGameListener(this);
 
         // Disable the back button
         this.backButton.setDisable(true);
@@ -135,10 +97,90 @@ public class GameWindowController implements EventHandler<Event>
         // Disable the nextRound button
         this.newRoundButton.setDisable(true);
 
+        // Nothing to undo or redo yet
+        updateHistoryButtons();
+
+        // Show the search overlay only when metrics are collected
+        this.metricsLabel.setVisible(Metrics.ENABLED);
+
         // Display Start Message
         String playerStart = new String(this.gameInstance.getCurrentPlayer() == this.gameInstance.getPlayerTurn() ? "Human" : "Computer");
         String otherPlayer = new String(this.gameInstance.getCurrentPlayer() == this.gameInstance.getPlayerTurn() ? "Computer" : "Human");
         this.displayPrompt(String.format("%s is X\n%s is O\n%s Start", playerStart, otherPlayer, playerStart));
+
+        // Let the AI open if it goes first
+        nextTurn();
+    }
+
+    // Move Listener
+    @Override
+    public void onMove(Game game, Move move, int player)
+    {
+        updateBoard();
+        updateHistoryButtons();
+
+        // While redoing, the AI waits until the replay is done
+        if(!this.replaying)
+            nextTurn();
+    }
+
+    // Undo Listener
+    @Override
+    public void onUndo(Game game, Move move, int player)
+    {
+        updateBoard();
+        updateHistoryButtons();
+    }
+
+    // Game Over Listener
+    @Override
+    public void onStatusChange(Game game, int status)
+    {
+        // Game resumed by an undo
+        if(status == Game.ONGOING)
+        {
+            displayPrompt("Move taken back.");
+            this.backButton.setDisable(true);
+            this.newRoundButton.setDisable(true);
+            return;
+        }
+
+        // Display Game Over
+        switch(status)
+        {
+            case Game.DRAW: // Tie
+                displayPrompt("It's a tie!");
+                break;
+            case Game.AI_WIN: // AI Wins
+                displayPrompt("Computer Wins!");
+                break;
+            case Game.PLAYER_WIN: // Player Wins
+                displayPrompt("Human Wins!");
+                break;
+            default:
+                displayPrompt("If you are seeing this, this is a bug.");
+        }
+        this.backButton.setDisable(false);
+        this.newRoundButton.setDisable(false);
+    }
+
+    // Start the AI's move if it is its turn
+    private void nextTurn()
+    {
+        // Check if Game Over, and if AI Move (and not already thinking)
+        if(this.gameInstance.getStatus() != Game.ONGOING
+                || this.gameInstance.getAI_Turn() != this.gameInstance.getCurrentPlayer() || this.pendingMove != null)
+            return;
+
+        // Move AI
+        displayPrompt("AI Move");
+        requestAIMove(this.agent);
+    }
+
+    // Set a cosmetic minimum time the AI appears to think before its move is shown
+    public void setThinkDelay(Duration thinkDelay)
+    {
+        this.thinkDelay = thinkDelay;
     }
 
     // Main Handler
@@ -166,11 +208,8 @@ public class GameWindowController implements EventHandler<Event>
             {
                 displayPrompt("Human's Move.");
 
-                // Perform the move
+                // Perform the move (the move listener updates the board and starts the AI)
                 this.gameInstance.cPlayerMove(row, col);
-
-                // Update Board
-                updateBoard();
             }
         }
     }
@@ -184,7 +223,28 @@ public class GameWindowController implements EventHandler<Event>
             Button button = (Button) ev.getSource();
 
             // Check Button ID
-            if(button.getId().equals(this.backButton.getId()))
+            // Drop any search still running for this round
+            cancelPendingMove();
+
+            if(button.getId().equals(this.undoButton.getId()))
+            {
+                // Take back moves until it is the human's turn again (the AI's reply and the human's move)
+                while(this.gameInstance.undo() && this.gameInstance.getCurrentPlayer() != this.gameInstance.getPlayerTurn()
+                        && this.gameInstance.canUndo());
+
+                // The AI moves again if it is its turn, e.g. after taking back its opening move
+                nextTurn();
+            }
+            else if(button.getId().equals(this.redoButton.getId()))
+            {
+                // Replay moves until it is the human's turn again
+                this.replaying = true;
+                while(this.gameInstance.redo() && this.gameInstance.getCurrentPlayer() != this.gameInstance.getPlayerTurn());
+                this.replaying = false;
+
+                nextTurn();
+            }
+            else if(button.getId().equals(this.backButton.getId()))
             {
                 // Load main primaryStage
                 Stage primaryStage = (Stage) ((Node) ev.getSource()).getScene().getWindow();
@@ -215,7 +275,7 @@ public class GameWindowController implements EventHandler<Event>
                 Stage primaryStage = (Stage) ((Node) ev.getSource()).getScene().getWindow();
 
                 // Set custom constructor
-                GameWindowController controller = new GameWindowController(this.rationality, this.gameInstance.getPlayerTurn() != 1);
+                GameWindowController controller = new GameWindowController(this.agent, this.gameInstance.getPlayerTurn() != 1);
 
                 // Load the FXML File
                 Parent root = null;
@@ -241,6 +301,62 @@ public class GameWindowController implements EventHandler<Event>
         }
     }
 
+    // Compute the AI move in the background, then apply it on the FX application thread
+    private void requestAIMove(Agent agent)
+    {
+        long start = System.nanoTime();
+        CompletableFuture<Move> request = AsyncAI.shared().computeMove(this.gameInstance, agent);
+        this.pendingMove = request;
+        request.whenComplete((move, error) -> Platform.runLater(() ->
+        {
+            Duration elapsed = Duration.millis((System.nanoTime() - start) / 1e6);
+            if(Metrics.ENABLED && this.pendingMove == request)
+                this.metricsLabel.setText(String.format("AI move %.2f ms | %s", elapsed.toMillis(), Metrics.summary()));
+
+            // Pad the search time up to the think delay, purely for show
+            Duration remaining = this.thinkDelay.subtract(elapsed);
+            if(remaining.greaterThan(Duration.ZERO))
+            {
+                PauseTransition pause = new PauseTransition(remaining);
+                pause.setOnFinished(e -> applyAIMove(request, move, error));
+                pause.play();
+            }
+            else
+                applyAIMove(request, move, error);
+        }));
+    }
+
+    // Play the computed AI move (FX application thread only)
+    private void applyAIMove(CompletableFuture<Move> request, Move move, Throwable error)
+    {
+        // Ignore results of cancelled or superseded searches
+        if(this.pendingMove != request || request.isCancelled())
+            return;
+        this.pendingMove = null;
+
+        if(error != null)
+            error.printStackTrace();
+        else if(move != null)
+            this.gameInstance.cPlayerMove(move.getRow(), move.getCol()); // the move listener updates the board
+    }
+
+    // Enable the Undo and Redo buttons only when there is something to undo or redo
+    private void updateHistoryButtons()
+    {
+        this.undoButton.setDisable(!this.gameInstance.canUndo());
+        this.redoButton.setDisable(!this.gameInstance.canRedo());
+    }
+
+    // Cancel the in-flight AI search, if any
+    private void cancelPendingMove()
+    {
+        if(this.pendingMove != null)
+        {
+            this.pendingMove.cancel(true);
+            this.pendingMove = null;
+        }
+    }
+
     // Prompt
     private void displayPrompt(String prompt)
     {
@@ -251,27 +367,23 @@ public class GameWindowController implements EventHandler<Event>
         this.promptConsole.setScrollTop(Double.MAX_VALUE);
     }
 
-    // Update Board
+    // Update Board (only cells that changed since the last update are touched)
     public void updateBoard()
     {
-        // Get the active board
-        int[][] board = this.gameInstance.getBoard();
+        // Get a snapshot of the board (no copy, and consistent even while the AI is searching)
+        Position position = this.gameInstance.getPosition();
 
         // Scan the board
         for(int i = 0; i < 3; i++)
         {
             for(int j = 0; j < 3; j++)
             {
-                switch(board[i][j])
+                int token = position.get(i, j);
+                if(token != this.rendered[i][j])
                 {
-                    case 1:
-                        // Fill with X
-                        this.grid[i][j].setImage(new Image("/mainPackage/assets/X.png"));
-                        break;
-                    case 2:
-                        // Fill with O
-                        this.grid[i][j].setImage(new Image("/mainPackage/assets/O.png"));
-                        break;
+                    // Fill with X, O, or clear the cell
+                    this.grid[i][j].setImage(ImageCache.piece(token));
+                    this.rendered[i][j] = token;
                 }
             }
         }
@@ -0,0 +1,47 @@
+package mainPackage;
+
+import javafx.scene.image.Image;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Decodes each image resource once per application and shares it between windows
+public final class ImageCache
+{
+    // Piece Images
+    public static final String X_IMAGE = "/mainPackage/assets/X.png";
+    public static final String O_IMAGE = "/mainPackage/assets/O.png";
+
+    private static final Map<String, Image> CACHE = new ConcurrentHashMap<>();
+
+    private ImageCache()
+    {
+    }
+
+    // Get an image, loading it in the background the first time it is requested
+    public static Image get(String path)
+    {
+        return CACHE.computeIfAbsent(path, p -> new Image(p, true));
+    }
+
+    // Get the piece image of a token (1: X, 2: O), or null for an empty cell
+    public static Image piece(int token)
+    {
+        switch(token)
+        {
+            case 1:
+                return get(X_IMAGE);
+            case 2:
+                return get(O_IMAGE);
+            default:
+                return null;
+        }
+    }
+
+    // Start decoding the piece images so that the first board update does not wait for them
+    public static void preload()
+    {
+        get(X_IMAGE);
+        get(O_IMAGE);
+    }
+}
@@ -5,11 +5,18 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import mainPackage.Model.Agents;
 
 public class Main extends Application {
 
     @Override
     public void start(Stage primaryStage) throws Exception{
+        // Load the agents' tables and models in the background (a game started earlier waits for its agent's)
+        Agents.warmUp();
+
+        // Start decoding the piece images in the background
+        ImageCache.preload();
+
         // Load the FXML File
         Parent root = FXMLLoader.load(getClass().getResource("MainWindow.fxml"));
 
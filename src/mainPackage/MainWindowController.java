@@ -11,11 +11,13 @@ import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
 import javafx.stage.Stage;
+import mainPackage.Model.Agent;
+import mainPackage.Model.Agents;
 
 public class MainWindowController implements EventHandler<Event>
 {
     // Controller Attributes
-    private int rationality;
+    private Agent agent;
 
     // JavaFX Components
     @FXML
@@ -30,17 +32,16 @@ public class MainWindowController implements EventHandler<Event>
     // Controller Constructor
     public MainWindowController()
     {
-        this.rationality = -1;
+        this.agent = null;
     }
 
     // JavaFX Initializer
     @FXML
     void initialize()
     {
-        // Add options to the combobox
-        this.rationalityDropdown.getItems().add(new String("Level 0: Random"));
-        this.rationalityDropdown.getItems().add(new String("Level 1: Hard-Coded Rules"));
-        this.rationalityDropdown.getItems().add(new String("Level 2: Heuristic Search Strategies"));
+        // Add an option to the combobox for each registered level
+        for(Agent level : Agents.levels())
+            this.rationalityDropdown.getItems().add(level.getLabel());
 
         // Disable Start Game Button
         this.startGame.setDisable(true);
@@ -66,10 +67,11 @@ public class MainWindowController implements EventHandler<Event>
             if(box.getId().equals(this.rationalityDropdown.getId()))
             {
                 // Main ComboBox
-                this.rationality = box.getItems().indexOf(box.getValue());
+                int level = box.getItems().indexOf(box.getValue());
+                this.agent = level >= 0 ? Agents.levels().get(level) : null;
 
                 // Update button
-                if(this.rationality >= 0)
+                if(this.agent != null)
                     this.startGame.setDisable(false);
                 else
                     this.startGame.setDisable(true);
@@ -87,7 +89,7 @@ public class MainWindowController implements EventHandler<Event>
                 Stage primaryStage = (Stage) ((Button) ev.getSource()).getScene().getWindow();
 
                 // Set custom constructor
-                GameWindowController controller = new GameWindowController(this.rationality, this.checkPlayAsX.isSelected());
+                GameWindowController controller = new GameWindowController(this.agent, this.checkPlayAsX.isSelected());
 
                 // Load the FXML File
                 Parent root = null;
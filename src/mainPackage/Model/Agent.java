@@ -0,0 +1,101 @@
+package mainPackage.Model;
+
+import java.util.function.Consumer;
+
+/**
+ * An AI behavior that can play a Game, discovered through the Agents registry.
+ *
+ * Agents are providers of a ServiceLoader (listed in META-INF/services/mainPackage.Model.Agent), so a new engine is
+ * added by implementing this interface and listing the class there; the windows, the server and the tournament pick
+ * it up from the registry. Constructors must be cheap: tables and searches are created on first use or by warmUp,
+ * which the application runs in the background at startup.
+ *
+ * An agent is also a Consumer of the game, so it can be passed wherever an AI behavior is expected.
+ */
+public interface Agent extends Consumer<Game> {
+    /**
+     * How much work an agent does per move, cheapest first.
+     */
+    enum Cost {
+        /**
+         * Fixed rules on the current board.
+         */
+        RULES,
+        /**
+         * Lookups in a table that is loaded (or built) once.
+         */
+        TABLE,
+        /**
+         * A search of the game tree on every move.
+         */
+        SEARCH
+    }
+
+    /**
+     * Returns the short name identifying the agent, e.g. in tournaments, records and metrics.
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Returns the name shown to players, e.g. in the level dropdown.
+     * @return the label
+     */
+    String getLabel();
+
+    /**
+     * Returns the agent's position among the levels offered to players.
+     * @return the level (0 being the weakest), or -1 if the agent is not offered as a level
+     */
+    int getLevel();
+
+    /**
+     * Returns how much work the agent does per move.
+     * @return the cost class
+     */
+    Cost getCost();
+
+    /**
+     * Returns the longest the agent thinks about one move, which the agent enforces itself (a search stops at it).
+     * @return the think budget in milliseconds, or 0 if the agent has none and plays once its move is found
+     */
+    long getThinkBudgetMillis();
+
+    /**
+     * Plays one move as the game's AI side (Game.getAI_Turn), if the game is still going.
+     * @param game the game to move in
+     */
+    void move(Game game);
+
+    /**
+     * Loads whatever the agent needs (tables, models) and lets the JIT compile its code paths, so that its first
+     * real move is as fast as the others. The default plays one game against itself on a scratch board.
+     */
+    default void warmUp(){
+        Game game = new Game(0);
+        game.newGame(2);
+        while (game.getStatus() == Game.ONGOING){
+            if (game.getCurrentPlayer() != game.getAI_Turn())
+                game.swapSides();
+            int moves = game.getMoveCount();
+            move(game);
+            if (game.getMoveCount() == moves)
+                break;
+        }
+    }
+
+    /**
+     * Returns an agent that plays the same moves whenever it is given the same game (position and seed), e.g. for a
+     * reproducible tournament. The default is this agent, which suits agents that neither read the clock nor search
+     * on several threads.
+     * @return the deterministic agent, with the same name
+     */
+    default Agent deterministic(){
+        return this;
+    }
+
+    @Override
+    default void accept(Game game){
+        move(game);
+    }
+}
@@ -0,0 +1,123 @@
+package mainPackage.Model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registry of the Agent providers on the class path.
+ *
+ * The providers are loaded with a ServiceLoader on first use, in the order they are listed. Loading an agent only
+ * creates it; its tables and searches are set up by warmUp, which runs every agent's Agent.warmUp on a background
+ * thread, cheapest cost class first, so that launching the application never waits for them.
+ */
+public final class Agents {
+    private static final Logger LOG = Logger.getLogger(Agents.class.getName());
+
+    private Agents(){
+    }
+
+    private static final class Holder {
+        static final List<Agent> ALL = load();
+        static final List<Agent> LEVELS = levels(ALL);
+    }
+
+    private static List<Agent> load(){
+        List<Agent> agents = new ArrayList<>();
+        for (Agent agent : ServiceLoader.load(Agent.class, Agents.class.getClassLoader())){
+            if (get(agents, agent.getName()) != null)
+                LOG.warning("Ignoring a second agent named " + agent.getName() + ": " + agent.getClass().getName());
+            else
+                agents.add(agent);
+        }
+        return Collections.unmodifiableList(agents);
+    }
+
+    private static List<Agent> levels(List<Agent> agents){
+        List<Agent> levels = new ArrayList<>();
+        for (Agent agent : agents){
+            if (agent.getLevel() >= 0)
+                levels.add(agent);
+        }
+        levels.sort(Comparator.comparingInt(Agent::getLevel));
+        return Collections.unmodifiableList(levels);
+    }
+
+    private static Agent get(List<Agent> agents, String name){
+        for (Agent agent : agents){
+            if (agent.getName().equals(name))
+                return agent;
+        }
+        return null;
+    }
+
+    /**
+     * Returns every registered agent, in the order of the service files.
+     * @return the agents
+     */
+    public static List<Agent> all(){
+        return Holder.ALL;
+    }
+
+    /**
+     * Returns the agents offered to players as levels, ordered by Agent.getLevel, weakest first. Level numbers need
+     * not be consecutive: look an agent up by its getLevel, not by its position in this list.
+     * @return the agents with a level
+     */
+    public static List<Agent> levels(){
+        return Holder.LEVELS;
+    }
+
+    /**
+     * Returns the agent offered as the given level.
+     * @param level the level, as returned by Agent.getLevel
+     * @return the agent, or null if no agent has that level
+     */
+    public static Agent level(int level){
+        for (Agent agent : levels()){
+            if (agent.getLevel() == level)
+                return agent;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the agent with the given name.
+     * @param name the agent's name, e.g. "random"
+     * @return the agent, or null if there is none
+     */
+    public static Agent get(String name){
+        return get(Holder.ALL, name);
+    }
+
+    /**
+     * Warms up every agent on a background daemon thread, cheapest cost class first.
+     * An agent whose warm-up fails is logged and skipped; it will set itself up on its first move instead.
+     * @return completes when every agent has been warmed up
+     */
+    public static CompletableFuture<Void> warmUp(){
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            List<Agent> agents = new ArrayList<>(all());
+            agents.sort(Comparator.comparing(Agent::getCost));
+            for (Agent agent : agents){
+                try {
+                    agent.warmUp();
+                }
+                catch (RuntimeException e){
+                    LOG.log(Level.WARNING, "Could not warm up agent " + agent.getName(), e);
+                }
+            }
+            done.complete(null);
+        }, "Agent-WarmUp");
+        // never keep the application alive for a warm-up
+        thread.setDaemon(true);
+        thread.start();
+        return done;
+    }
+}
@@ -0,0 +1,218 @@
+package mainPackage.Model;
+
+/**
+ * Minimax with alpha-beta pruning.
+ * Moves are ordered killer moves first, then by history score, then center, corners, and edges.
+ * Results are cached in a transposition table, shared across the process by default.
+ * Scores are the same as Game.minimax; only the number of visited nodes changes.
+ */
+public class AlphaBetaMinimax implements Minimax {
+    /**
+     * Static move priority: center, then corners, then edges.
+     */
+    private static final int[] CELL_PRIORITY = { 2, 1, 2, 1, 3, 1, 2, 1, 2 };
+    private static final int MAX_PLY = Bitboard.CELLS + 1;
+
+    /**
+     * The game whose players and scoring are used.
+     */
+    private final Game game;
+    /**
+     * Cache of searched positions, or null to search without one.
+     */
+    private final TranspositionTable table;
+    /**
+     * Two killer moves (cell index, -1 if none) per ply that last caused a cutoff.
+     */
+    private final int[][] killers;
+    /**
+     * History score per side (0: AI, 1: player) and cell, bumped whenever the move causes a cutoff.
+     */
+    private final int[][] history;
+    /**
+     * Reusable move lists, one per ply, so that ordering does not allocate.
+     */
+    private final int[][] moveBuffers;
+    private final int[][] keyBuffers;
+    /**
+     * Search counters, added to Metrics after each call to minimax (only when metrics are enabled).
+     */
+    private long nodes, leaves, cacheHits, cutoffs;
+
+    public AlphaBetaMinimax(Game game){
+        this(game, TranspositionTable.shared());
+    }
+
+    public AlphaBetaMinimax(Game game, TranspositionTable table){
+        this.game = game;
+        this.table = table;
+        killers = new int[MAX_PLY][2];
+        history = new int[2][Bitboard.CELLS];
+        moveBuffers = new int[MAX_PLY][Bitboard.CELLS];
+        keyBuffers = new int[MAX_PLY][Bitboard.CELLS];
+        clearKillers();
+    }
+
+    @Override
+    public int minimax(int[][] board, boolean isMax, int depth) {
+        return minimax(Bitboard.toMask(board, game.getAI_Turn()), Bitboard.toMask(board, game.getPlayerTurn()), isMax, depth);
+    }
+
+    /**
+     * Searches with a full window, so the returned score is exact.
+     */
+    @Override
+    public int minimax(int aiMask, int playerMask, boolean isMax, int depth) {
+        int score = alphaBeta(aiMask, playerMask, isMax, depth, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        if (Metrics.ENABLED){
+            Metrics.addSearch(nodes, leaves, cacheHits, cutoffs);
+            nodes = leaves = cacheHits = cutoffs = 0;
+        }
+        return score;
+    }
+
+    /**
+     * Returns a new engine with its own killer and history tables, sharing this engine's transposition table.
+     */
+    @Override
+    public Minimax fork(){
+        return new AlphaBetaMinimax(game, table);
+    }
+
+    /**
+     * Fail-hard alpha-beta search.
+     * @param aiMask cells owned by the AI
+     * @param playerMask cells owned by the human player
+     * @param isMax true if it is the AI's turn
+     * @param depth depth of the position in the search
+     * @param alpha score the AI is already assured of
+     * @param beta score the player is already assured of
+     * @return the minimax score if it lies within (alpha, beta), otherwise the bound that was crossed
+     */
+    public int alphaBeta(int aiMask, int playerMask, boolean isMax, int depth, int alpha, int beta) {
+        int status = game.checkStatus(aiMask, playerMask, depth);
+        // Have reached a leaf node (base case)
+        if (status != Game.ONGOING)
+            return leaf(status);
+        return search(aiMask, playerMask, isMax, depth, alpha, beta);
+    }
+
+    /**
+     * Alpha-beta below a position known to be ongoing. Since the position has no win, a child is a leaf only if its
+     * move completes a line (one table lookup on the mover's mask) or fills the board; no full board scan is needed.
+     */
+    private int search(int aiMask, int playerMask, boolean isMax, int depth, int alpha, int beta) {
+        if (Metrics.ENABLED)
+            nodes++;
+        int draft = Bitboard.CELLS - Integer.bitCount(aiMask | playerMask);
+        int key = 0;
+        if (table != null){
+            key = TranspositionTable.key(aiMask, playerMask, isMax);
+            int cached = table.probe(key, draft, depth, alpha, beta);
+            if (cached != TranspositionTable.MISS){
+                if (Metrics.ENABLED)
+                    cacheHits++;
+                return cached;
+            }
+        }
+        int alphaOrig = alpha, betaOrig = beta;
+        int ply = Math.min(depth, MAX_PLY - 1);
+        int side = isMax ? 0 : 1;
+        int[] moves = moveBuffers[ply];
+        int count = orderMoves(Bitboard.empty(aiMask, playerMask), ply, side, moves);
+        for (int i = 0; i < count; i++){
+            int cell = moves[i];
+            int score;
+            if (isMax){
+                // AI is maximizing its best score
+                int next = aiMask | 1 << cell;
+                if (Bitboard.isWin(next))
+                    score = leaf(Game.AI_WIN - (depth + 1));
+                else if (draft == 1)
+                    score = leaf(Game.DRAW);
+                else
+                    score = search(next, playerMask, false, depth + 1, alpha, beta);
+                if (score > alpha)
+                    alpha = score;
+            }
+            else{
+                // Player is minimizing the AI's best score
+                int next = playerMask | 1 << cell;
+                if (Bitboard.isWin(next))
+                    score = leaf(Game.PLAYER_WIN + (depth + 1));
+                else if (draft == 1)
+                    score = leaf(Game.DRAW);
+                else
+                    score = search(aiMask, next, true, depth + 1, alpha, beta);
+                if (score < beta)
+                    beta = score;
+            }
+            if (alpha >= beta){
+                if (Metrics.ENABLED)
+                    cutoffs++;
+                recordCutoff(moves[i], ply, side, count);
+                break;
+            }
+        }
+        int result = alpha >= beta ? (isMax ? beta : alpha) : (isMax ? alpha : beta);
+        if (table != null){
+            int bound = result <= alphaOrig ? TranspositionTable.UPPER
+                    : result >= betaOrig ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, draft, depth, result, bound);
+        }
+        return result;
+    }
+
+    // Counts a position scored without searching it
+    private int leaf(int score){
+        if (Metrics.ENABLED)
+            leaves++;
+        return score;
+    }
+
+    /**
+     * Forgets the killer moves. History scores are kept since they stay useful between moves.
+     */
+    public void clearKillers(){
+        for (int[] ply : killers){
+            ply[0] = -1;
+            ply[1] = -1;
+        }
+    }
+
+    /**
+     * Writes the empty cells into moves, best candidates first.
+     * @return the number of moves written
+     */
+    private int orderMoves(int empty, int ply, int side, int[] moves){
+        int[] keys = keyBuffers[ply];
+        int count = 0;
+        for (; empty != 0; empty &= empty - 1){
+            int cell = Integer.numberOfTrailingZeros(empty);
+            int key = (history[side][cell] << 2) | CELL_PRIORITY[cell];
+            if (cell == killers[ply][0])
+                key = Integer.MAX_VALUE;
+            else if (cell == killers[ply][1])
+                key = Integer.MAX_VALUE - 1;
+            // insertion sort, highest key first
+            int j = count++;
+            while (j > 0 && keys[j - 1] < key){
+                keys[j] = keys[j - 1];
+                moves[j] = moves[j - 1];
+                j--;
+            }
+            keys[j] = key;
+            moves[j] = cell;
+        }
+        return count;
+    }
+
+    private void recordCutoff(int cell, int ply, int side, int remaining){
+        if (killers[ply][0] != cell){
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = cell;
+        }
+        // deeper subtrees (more remaining moves) weigh more; capped to keep the shift in orderMoves safe
+        history[side][cell] = Math.min(history[side][cell] + remaining * remaining, 1 << 20);
+    }
+}
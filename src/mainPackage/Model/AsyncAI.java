@@ -0,0 +1,97 @@
+package mainPackage.Model;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Runs AI move computations on background threads.
+ * The AI plays on a copy of the game, so the live game is never touched off the caller's thread;
+ * the caller applies the returned move itself.
+ */
+public class AsyncAI {
+    private static final AsyncAI SHARED = new AsyncAI();
+
+    private final ExecutorService executor;
+
+    public AsyncAI(){
+        executor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "AI-Search");
+            // never keep the application alive for an abandoned search
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the executor shared by the application.
+     * @return the shared executor
+     */
+    public static AsyncAI shared(){
+        return SHARED;
+    }
+
+    /**
+     * Computes the AI's move in the background.
+     * Cancelling the returned future interrupts the search thread and its move is discarded. MonteCarloTreeSearch
+     * stops at its next budget check; the full-tree searches finish within milliseconds.
+     * @param game the game to move in; copied on the calling thread
+     * @param agent the AI behavior, e.g. Game::AI_bestMove
+     * @return the move the agent chose, or null if it did not move
+     */
+    public CompletableFuture<Move> computeMove(Game game, Consumer<Game> agent){
+        Game copy = new Game(game);
+        int moveCount = copy.getMoveCount();
+        return submit(() -> {
+            agent.accept(copy);
+            // an agent that did not move (e.g. the game is over) leaves the previous move last
+            return copy.getMoveCount() == moveCount ? null : copy.getLastMove();
+        });
+    }
+
+    /**
+     * Computes a move of an N x N game in the background with an iterative-deepening search.
+     * Cancelling the returned future interrupts the search, which stops at its next clock check.
+     * @param game the game to move in; copied on the calling thread
+     * @param search the search to use, by no other request at the same time
+     * @param maxDepth the maximum number of plies to look ahead
+     * @param budgetMillis the time budget in milliseconds
+     * @return the cell index of the move, or null if the game is over
+     */
+    public CompletableFuture<Integer> computeMove(GeneralGame game, DepthLimitedSearch search, int maxDepth,
+                                                  long budgetMillis){
+        GeneralGame copy = new GeneralGame(game);
+        return submit(() -> {
+            int cell = search.bestMove(copy, maxDepth, budgetMillis);
+            return cell < 0 ? null : cell;
+        });
+    }
+
+    // Runs a computation on a worker; cancelling the future interrupts the worker
+    private <T> CompletableFuture<T> submit(Callable<T> computation){
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(computation.call());
+            }
+            catch (Throwable t){
+                result.completeExceptionally(t);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled())
+                task.cancel(true);
+        });
+        return result;
+    }
+
+    /**
+     * Stops the worker threads. Searches in progress are interrupted.
+     */
+    public void shutdown(){
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,215 @@
+package mainPackage.Model;
+
+import java.util.Arrays;
+
+/**
+ * Helpers for the bitboard representation of the board.
+ * Each side is kept as a 9-bit mask in a single int, where bit (row * 3 + col) is set if that side owns the cell.
+ */
+public final class Bitboard {
+    /**
+     * Number of cells on the board.
+     */
+    public static final int CELLS = Game.ROWS * Game.COLS;
+    /**
+     * Mask with every cell set.
+     */
+    public static final int FULL = (1 << CELLS) - 1;
+    /**
+     * The eight winning lines: three rows, three columns, then the two diagonals.
+     */
+    public static final int[] WIN_LINES = {
+            0b000_000_111, 0b000_111_000, 0b111_000_000,
+            0b001_001_001, 0b010_010_010, 0b100_100_100,
+            0b100_010_001, 0b001_010_100
+    };
+    /**
+     * LINES_THROUGH[cell] holds the indices (into WIN_LINES) of the two to four lines passing through the cell.
+     */
+    public static final int[][] LINES_THROUGH = new int[CELLS][];
+    /**
+     * Number of symmetries of the board (four rotations, each optionally mirrored).
+     */
+    public static final int SYMMETRIES = 8;
+    /**
+     * Number of base-3 board indices (3^9).
+     */
+    public static final int INDICES = 19683;
+    /**
+     * TRANSFORMS[sym][mask] is the mask after applying symmetry sym. Symmetry 0 is the identity.
+     */
+    private static final int[][] TRANSFORMS = new int[SYMMETRIES][FULL + 1];
+    /**
+     * WINNING[mask] is true if the mask contains one of the winning lines.
+     */
+    private static final boolean[] WINNING = new boolean[FULL + 1];
+    /**
+     * TERNARY[mask] is the sum of 3^cell over the cells in the mask.
+     */
+    private static final int[] TERNARY = new int[FULL + 1];
+
+    static {
+        for (int cell = 0; cell < CELLS; cell++){
+            int count = 0;
+            int[] lines = new int[4];
+            for (int line = 0; line < WIN_LINES.length; line++){
+                if ((WIN_LINES[line] & 1 << cell) != 0)
+                    lines[count++] = line;
+            }
+            LINES_THROUGH[cell] = Arrays.copyOf(lines, count);
+        }
+        for (int sym = 0; sym < SYMMETRIES; sym++){
+            // cell permutation of this symmetry
+            int[] target = new int[CELLS];
+            for (int row = 0; row < Game.ROWS; row++){
+                for (int col = 0; col < Game.COLS; col++){
+                    int r = row, c = col;
+                    // rotate 90 degrees clockwise (sym % 4) times, then mirror if sym >= 4
+                    for (int turn = 0; turn < sym % 4; turn++){
+                        int tmp = r;
+                        r = c;
+                        c = Game.COLS - 1 - tmp;
+                    }
+                    if (sym >= 4)
+                        c = Game.COLS - 1 - c;
+                    target[cell(row, col)] = cell(r, c);
+                }
+            }
+            for (int mask = 0; mask <= FULL; mask++){
+                int result = 0;
+                for (int cell = 0; cell < CELLS; cell++){
+                    if ((mask & 1 << cell) != 0)
+                        result |= 1 << target[cell];
+                }
+                TRANSFORMS[sym][mask] = result;
+            }
+        }
+        for (int mask = 0; mask <= FULL; mask++){
+            for (int line : WIN_LINES)
+                WINNING[mask] |= (mask & line) == line;
+        }
+        for (int mask = 0; mask <= FULL; mask++){
+            int power = 1;
+            for (int cell = 0; cell < CELLS; cell++, power *= 3){
+                if ((mask & 1 << cell) != 0)
+                    TERNARY[mask] += power;
+            }
+        }
+    }
+
+    private Bitboard(){
+    }
+
+    /**
+     * Returns the cell index (0 - 8) of a row and column.
+     * @param row target row
+     * @param col target column
+     * @return the cell index
+     */
+    public static int cell(int row, int col){
+        return row * Game.COLS + col;
+    }
+
+    /**
+     * Returns true if the mask completes any of the eight winning lines. This is a single table lookup.
+     * @param mask the cells owned by one side
+     * @return true if the side has three in a row
+     */
+    public static boolean isWin(int mask){
+        return WINNING[mask];
+    }
+
+    /**
+     * Returns the index of the n-th (counting from 0) lowest set cell of a mask.
+     * @param cells the cell mask
+     * @param n which set cell to return, less than the number of cells in the mask
+     * @return the cell index
+     */
+    public static int nthCell(int cells, int n){
+        for (; n > 0; n--)
+            cells &= cells - 1;
+        return Integer.numberOfTrailingZeros(cells);
+    }
+
+    /**
+     * Returns the mask of empty cells given the masks of both sides.
+     * @param a cells owned by one side
+     * @param b cells owned by the other side
+     * @return the empty cells
+     */
+    public static int empty(int a, int b){
+        return ~(a | b) & FULL;
+    }
+
+    /**
+     * Applies one of the eight board symmetries to a mask.
+     * @param sym symmetry number (0 - 7), 0 being the identity
+     * @param mask the mask to transform
+     * @return the transformed mask
+     */
+    public static int transform(int sym, int mask){
+        return TRANSFORMS[sym][mask];
+    }
+
+    /**
+     * Returns the base-3 index of a position, where each cell is 0 if empty, 1 if owned by first and 2 if owned by second.
+     * @param first cells whose digit is 1
+     * @param second cells whose digit is 2
+     * @return the index, between 0 and INDICES - 1
+     */
+    public static int index(int first, int second){
+        return TERNARY[first] + 2 * TERNARY[second];
+    }
+
+    /**
+     * Returns the smallest base-3 index over all eight symmetries of the position,
+     * so that rotated and mirrored positions share one index.
+     * @param first cells whose digit is 1
+     * @param second cells whose digit is 2
+     * @return the canonical index
+     */
+    public static int canonicalIndex(int first, int second){
+        int best = index(first, second);
+        for (int sym = 1; sym < SYMMETRIES; sym++){
+            int index = index(TRANSFORMS[sym][first], TRANSFORMS[sym][second]);
+            if (index < best)
+                best = index;
+        }
+        return best;
+    }
+
+    /**
+     * Returns the symmetry that maps a position to its canonical index (the lowest numbered one on ties).
+     * @param first cells whose digit is 1
+     * @param second cells whose digit is 2
+     * @return the symmetry number (0 - 7)
+     */
+    public static int canonicalSymmetry(int first, int second){
+        int best = index(first, second), bestSym = 0;
+        for (int sym = 1; sym < SYMMETRIES; sym++){
+            int index = index(TRANSFORMS[sym][first], TRANSFORMS[sym][second]);
+            if (index < best){
+                best = index;
+                bestSym = sym;
+            }
+        }
+        return bestSym;
+    }
+
+    /**
+     * Packs the cells of a 2D board holding the given token into a mask.
+     * @param board board filled with 0, 1, or 2
+     * @param token the token to collect
+     * @return the mask of cells holding the token
+     */
+    public static int toMask(int[][] board, int token){
+        int mask = 0;
+        for (int row = 0; row < Game.ROWS; row++){
+            for (int col = 0; col < Game.COLS; col++){
+                if (board[row][col] == token)
+                    mask |= 1 << cell(row, col);
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,192 @@
+package mainPackage.Model;
+
+/**
+ * The agents that come with the game, one nested provider class per AI behavior of Game.
+ * Listed in META-INF/services/mainPackage.Model.Agent in the order of Tournament's record ids.
+ */
+public final class BuiltInAgents {
+    private BuiltInAgents(){
+    }
+
+    /**
+     * Holds the description every built-in agent declares.
+     */
+    private abstract static class Base implements Agent {
+        private final String name;
+        private final String label;
+        private final int level;
+        private final Cost cost;
+        private final long thinkBudgetMillis;
+
+        Base(String name, String label, int level, Cost cost, long thinkBudgetMillis){
+            this.name = name;
+            this.label = label;
+            this.level = level;
+            this.cost = cost;
+            this.thinkBudgetMillis = thinkBudgetMillis;
+        }
+
+        @Override
+        public String getName(){
+            return name;
+        }
+
+        @Override
+        public String getLabel(){
+            return label;
+        }
+
+        @Override
+        public int getLevel(){
+            return level;
+        }
+
+        @Override
+        public Cost getCost(){
+            return cost;
+        }
+
+        @Override
+        public long getThinkBudgetMillis(){
+            return thinkBudgetMillis;
+        }
+
+        @Override
+        public String toString(){
+            return name;
+        }
+    }
+
+    /**
+     * Game.AI_randomMove: wins when it can, otherwise plays a random cell.
+     */
+    public static final class Random extends Base {
+        public Random(){
+            super("random", "Level 0: Random", 0, Cost.RULES, 0);
+        }
+
+        @Override
+        public void move(Game game){
+            game.AI_randomMove();
+        }
+    }
+
+    /**
+     * Game.AI_genericMove: hard-coded rules.
+     */
+    public static final class Generic extends Base {
+        public Generic(){
+            super("generic", "Level 1: Hard-Coded Rules", 1, Cost.RULES, 0);
+        }
+
+        @Override
+        public void move(Game game){
+            game.AI_genericMove();
+        }
+    }
+
+    /**
+     * Game.AI_bestMove: full minimax search. Plays like Table, so it is not offered as a level.
+     * The search always runs to the end, so it declares no think budget.
+     */
+    public static final class Best extends Base {
+        public Best(){
+            super("best", "Minimax Search", -1, Cost.SEARCH, 0);
+        }
+
+        @Override
+        public void move(Game game){
+            game.AI_bestMove();
+        }
+    }
+
+    /**
+     * Game.AI_tableMove: perfect play from the precomputed MoveTable.
+     */
+    public static final class Table extends Base {
+        public Table(){
+            super("table", "Level 2: Heuristic Search Strategies", 2, Cost.TABLE, 0);
+        }
+
+        @Override
+        public void move(Game game){
+            game.AI_tableMove();
+        }
+
+        @Override
+        public void warmUp(){
+            MoveTable.get();
+            super.warmUp();
+        }
+    }
+
+    /**
+     * Game.AI_monteCarloMove with a search per thread that stops at the think budget.
+     * Its deterministic version searches on one thread and stops at the iteration budget only.
+     */
+    public static final class MonteCarlo extends Base {
+        private final ThreadLocal<MonteCarloTreeSearch> search;
+
+        public MonteCarlo(){
+            this(250);
+        }
+
+        // A budget of 0 makes the search single-threaded and stops it at its iteration budget only
+        private MonteCarlo(long thinkBudgetMillis){
+            super("mcts", "Level 3: Monte Carlo Tree Search", 3, Cost.SEARCH, thinkBudgetMillis);
+            search = ThreadLocal.withInitial(() -> {
+                MonteCarloTreeSearch search = new MonteCarloTreeSearch();
+                search.setTimeBudget(thinkBudgetMillis);
+                if (thinkBudgetMillis == 0)
+                    search.setThreads(1);
+                return search;
+            });
+        }
+
+        @Override
+        public void move(Game game){
+            game.AI_monteCarloMove(search.get());
+        }
+
+        @Override
+        public Agent deterministic(){
+            return getThinkBudgetMillis() == 0 ? this : new MonteCarlo(0);
+        }
+
+        @Override
+        public void warmUp(){
+            // a full game at the real budget would keep the warm-up thread busy for seconds
+            MonteCarloTreeSearch small = new MonteCarloTreeSearch(1 << 12);
+            small.setIterations(500);
+            small.setThreads(1);
+            Game game = new Game(0);
+            game.newGame(2);
+            while (game.getStatus() == Game.ONGOING){
+                if (game.getCurrentPlayer() != game.getAI_Turn())
+                    game.swapSides();
+                game.AI_monteCarloMove(small);
+            }
+        }
+    }
+
+    /**
+     * Game.AI_learnedMove: the value function trained by ValueTrainer.
+     */
+    public static final class Learned extends Base {
+        public Learned(){
+            super("learned", "Level 4: Machine Learning", 4, Cost.TABLE, 0);
+        }
+
+        @Override
+        public void move(Game game){
+            game.AI_learnedMove();
+        }
+
+        @Override
+        public void warmUp(){
+            // maps the model, or trains one in memory when the file is missing
+            ValueModel.get();
+            super.warmUp();
+        }
+    }
+}
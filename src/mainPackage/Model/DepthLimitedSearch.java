@@ -0,0 +1,328 @@
+package mainPackage.Model;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Depth-limited alpha-beta (negamax) search for GeneralGame boards, driven by iterative deepening.
+ * Positions at the depth limit are scored by a pluggable Evaluator.
+ *
+ * On boards with more than 16 cells only empty cells next to a token are searched, which keeps
+ * gomoku-sized boards tractable.
+ *
+ * A search can be given a time budget: an iteration that runs past it is abandoned and the move of the last
+ * completed iteration is returned. Each iteration searches the previous iteration's principal variation first.
+ *
+ * Usage: DepthLimitedSearch [N] [K] [max depth] [budget ms] (plays the search against itself and prints the game)
+ */
+public class DepthLimitedSearch {
+    /**
+     * Score of a won position. Wins found sooner score higher (WIN - ply).
+     */
+    public static final int WIN = 1 << 30;
+    /**
+     * The clock is read once per this many nodes (a power of two).
+     */
+    private static final int CLOCK_INTERVAL = 256;
+
+    private final Evaluator evaluator;
+    private int lastScore;
+    private int lastDepth;
+    private long nodes;
+    /**
+     * Leaf and cutoff counts of the current call, for Metrics.
+     */
+    private long leaves, cutoffs;
+    private long deadline;
+    private boolean timedOut;
+    /**
+     * Triangular principal variation table: pv[ply] holds the best line found from ply, pvLength[ply] moves long.
+     */
+    private int[][] pv;
+    private int[] pvLength;
+    /**
+     * Principal variation of the last completed iteration, searched first by the next one.
+     */
+    private int[] previousPv = new int[0];
+    private boolean pvOrdering = true;
+
+    public DepthLimitedSearch(Evaluator evaluator){
+        this.evaluator = evaluator;
+    }
+
+    public DepthLimitedSearch(){
+        this(new LineEvaluator());
+    }
+
+    /**
+     * Searches depth 1, 2, ... up to maxDepth (or until the result is a proven win or loss) and returns the best move
+     * of the deepest iteration.
+     * @param game the position; restored before returning
+     * @param maxDepth the maximum number of plies to look ahead
+     * @return the cell index of the best move, or -1 if the game is over
+     */
+    public int bestMove(GeneralGame game, int maxDepth){
+        return bestMove(game, maxDepth, Long.MAX_VALUE);
+    }
+
+    /**
+     * Searches depth 1, 2, ... up to maxDepth (or until the result is a proven win or loss, the time budget runs
+     * out, or the calling thread is interrupted) and returns the best move of the deepest completed iteration.
+     * @param game the position; restored before returning
+     * @param maxDepth the maximum number of plies to look ahead
+     * @param budgetMillis the time budget in milliseconds
+     * @return the cell index of the best move, or -1 if the game is over
+     */
+    public int bestMove(GeneralGame game, int maxDepth, long budgetMillis){
+        // capped so that the deadline comparison cannot overflow
+        deadline = System.nanoTime() + Math.min(TimeUnit.MILLISECONDS.toNanos(budgetMillis), Long.MAX_VALUE / 2);
+        timedOut = false;
+        nodes = leaves = cutoffs = 0;
+        lastDepth = 0;
+        previousPv = new int[0];
+        int cellCount = game.getSize() * game.getSize();
+        maxDepth = Math.min(maxDepth, cellCount - game.getMoveCount());
+        pv = new int[maxDepth + 1][maxDepth + 1];
+        pvLength = new int[maxDepth + 1];
+
+        int best = -1;
+        for (int depth = 1; depth <= maxDepth && !game.isOver(); depth++){
+            int move = searchRoot(game, depth);
+            if (timedOut){
+                // nothing completed yet: take the first move searched rather than none
+                if (best < 0)
+                    best = move >= 0 ? move : candidates(game)[0];
+                break;
+            }
+            best = move;
+            lastDepth = depth;
+            previousPv = Arrays.copyOf(pv[0], pvLength[0]);
+            // the game-theoretic value is known, deeper searches cannot change it
+            if (Math.abs(lastScore) > WIN - cellCount)
+                break;
+        }
+        if (Metrics.ENABLED)
+            Metrics.addSearch(nodes, leaves, 0, cutoffs);
+        return best;
+    }
+
+    /**
+     * Turns the principal variation move ordering on or off. It only changes how fast an iteration completes: the
+     * move and score of a fixed-depth search are the same either way.
+     * @param pvOrdering false to search every position's moves in their natural order
+     */
+    void setPvOrdering(boolean pvOrdering){
+        this.pvOrdering = pvOrdering;
+    }
+
+    /**
+     * Returns the score of the last completed iteration, from the mover's point of view.
+     * @return the score
+     */
+    public int getLastScore(){
+        return lastScore;
+    }
+
+    /**
+     * Returns the depth of the last completed iteration.
+     * @return the depth
+     */
+    public int getLastDepth(){
+        return lastDepth;
+    }
+
+    /**
+     * Returns the principal variation of the last completed iteration, starting with the best move.
+     * @return the moves (cell indices) of the expected line of play
+     */
+    public int[] getPrincipalVariation(){
+        return previousPv.clone();
+    }
+
+    /**
+     * Returns true if the last call to bestMove ran out of time (or was interrupted) before reaching its maximum depth.
+     * @return true if the time budget was exhausted
+     */
+    public boolean isTimedOut(){
+        return timedOut;
+    }
+
+    /**
+     * Returns the number of positions visited by the last call to bestMove.
+     * @return the node count
+     */
+    public long getNodes(){
+        return nodes;
+    }
+
+    /**
+     * Searches every root move and returns the best one. Of equally scored moves, the one first in candidates()
+     * order wins, whichever order they are searched in: a move ahead of the current best is searched with a window
+     * one point lower, so that a tie is scored exactly.
+     */
+    private int searchRoot(GeneralGame game, int depth){
+        int[] moves = candidates(game);
+        int[] rank = new int[game.getSize() * game.getSize()];
+        for (int i = 0; i < moves.length; i++)
+            rank[moves[i]] = i;
+        boolean onPv = orderPvMove(moves, 0);
+        int alpha = -WIN - 1, best = -1;
+        pvLength[0] = 0;
+        for (int i = 0; i < moves.length; i++){
+            int move = moves[i];
+            boolean ahead = best >= 0 && rank[move] < rank[best];
+            game.makeMove(move);
+            int score = -negamax(game, depth - 1, 1, -WIN - 1, ahead ? -alpha + 1 : -alpha, onPv && i == 0);
+            game.unmakeMove(move);
+            if (timedOut)
+                break;
+            if (score > alpha || (ahead && score == alpha)){
+                alpha = score;
+                best = move;
+                updatePv(0, move);
+            }
+        }
+        if (!timedOut)
+            lastScore = alpha;
+        return best;
+    }
+
+    /**
+     * @param onPv true if every move leading here follows the previous principal variation
+     */
+    private int negamax(GeneralGame game, int depth, int ply, int alpha, int beta, boolean onPv){
+        nodes++;
+        pvLength[ply] = 0;
+        // an interrupt (e.g. a cancelled AsyncAI request) stops the search like the end of the budget
+        if ((nodes & (CLOCK_INTERVAL - 1)) == 0
+                && (System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()))
+            timedOut = true;
+        if (timedOut)
+            return 0;
+        // the previous mover just won
+        if (game.getWinner() != 0)
+            return leaf(-(WIN - ply));
+        if (game.isOver())
+            return leaf(0);
+        if (depth == 0)
+            return leaf(evaluator.evaluate(game, game.getCurrentPlayer()));
+        int[] moves = candidates(game);
+        onPv = onPv && orderPvMove(moves, ply);
+        for (int i = 0; i < moves.length; i++){
+            int move = moves[i];
+            game.makeMove(move);
+            int score = -negamax(game, depth - 1, ply + 1, -beta, -alpha, onPv && i == 0);
+            game.unmakeMove(move);
+            if (timedOut)
+                return 0;
+            if (score > alpha){
+                alpha = score;
+                updatePv(ply, move);
+                if (alpha >= beta){
+                    if (Metrics.ENABLED)
+                        cutoffs++;
+                    break;
+                }
+            }
+        }
+        return alpha;
+    }
+
+    // Counts a position scored without searching it
+    private int leaf(int score){
+        if (Metrics.ENABLED)
+            leaves++;
+        return score;
+    }
+
+    /**
+     * Moves the previous principal variation's move at this ply to the front of the list.
+     * @return true if the list contained it
+     */
+    private boolean orderPvMove(int[] moves, int ply){
+        if (!pvOrdering || ply >= previousPv.length)
+            return false;
+        for (int i = 0; i < moves.length; i++){
+            if (moves[i] == previousPv[ply]){
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = previousPv[ply];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The best line from ply is the move followed by the best line from ply + 1
+    private void updatePv(int ply, int move){
+        pv[ply][0] = move;
+        System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+        pvLength[ply] = pvLength[ply + 1] + 1;
+    }
+
+    /**
+     * Returns the cells worth searching, closest to the center first.
+     */
+    private int[] candidates(GeneralGame game){
+        int size = game.getSize();
+        int cellCount = size * size;
+        boolean nearOnly = cellCount > 16 && game.getMoveCount() > 0;
+        int[] moves = new int[cellCount];
+        int[] keys = new int[cellCount];
+        int count = 0;
+        int center = size - 1; // twice the center coordinate
+        for (int cell = 0; cell < cellCount; cell++){
+            if (game.get(cell) != 0 || (nearOnly && !hasNeighbor(game, cell)))
+                continue;
+            int row = cell / size, col = cell % size;
+            int key = Math.abs(2 * row - center) + Math.abs(2 * col - center);
+            // insertion sort, smallest distance first
+            int j = count++;
+            while (j > 0 && keys[j - 1] > key){
+                keys[j] = keys[j - 1];
+                moves[j] = moves[j - 1];
+                j--;
+            }
+            keys[j] = key;
+            moves[j] = cell;
+        }
+        return Arrays.copyOf(moves, count);
+    }
+
+    private static boolean hasNeighbor(GeneralGame game, int cell){
+        int size = game.getSize();
+        int row = cell / size, col = cell % size;
+        for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++){
+            for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++){
+                if (game.get(r * size + c) != 0)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args){
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int winLength = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int maxDepth = args.length > 2 ? Integer.parseInt(args[2]) : size * size;
+        long budget = args.length > 3 ? Long.parseLong(args[3]) : 1000;
+        GeneralGame game = new GeneralGame(size, winLength);
+        DepthLimitedSearch search = new DepthLimitedSearch();
+        System.out.printf("%d x %d, %d in a row, depth %d, %d ms per move%n", size, size, winLength, maxDepth, budget);
+        while (!game.isOver()){
+            int player = game.getCurrentPlayer();
+            long start = System.nanoTime();
+            int cell = AsyncAI.shared().computeMove(game, search, maxDepth, budget).join();
+            game.makeMove(cell);
+            System.out.printf("%s plays %d,%d (depth %d, score %d, %d nodes, %.0f ms)%n", player == 1 ? "X" : "O",
+                    cell / size, cell % size, search.getLastDepth(), search.getLastScore(), search.getNodes(),
+                    (System.nanoTime() - start) / 1e6);
+        }
+        for (int[] row : game.getBoard()){
+            StringBuilder line = new StringBuilder();
+            for (int token : row)
+                line.append(".XO".charAt(token));
+            System.out.println(line);
+        }
+        System.out.println(game.getWinner() == 0 ? "Draw" : (game.getWinner() == 1 ? "X" : "O") + " wins");
+    }
+}
@@ -0,0 +1,14 @@
+package mainPackage.Model;
+
+/**
+ * Heuristic evaluation of a non-terminal GeneralGame position, used where the search is cut off by depth.
+ */
+public interface Evaluator {
+    /**
+     * Scores the position from the point of view of a player. Must stay well below DepthLimitedSearch.WIN in magnitude.
+     * @param game the position
+     * @param player the player (1 or 2) to score for
+     * @return positive if the position favors the player, negative if it favors the opponent
+     */
+    public int evaluate(GeneralGame game, int player);
+}
@@ -1,18 +1,46 @@
 package mainPackage.Model;
-import java.time.LocalDateTime;
 import java.util.*;
-import java.time.LocalTime;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Logger;
 
 // Reference: https://www3.ntu.edu.sg/home/ehchua/programming/java/JavaGame_TicTacToe.html
 public class Game implements Minimax{
     /**
-     * Represents the board.
-     * The board is filled with values of either 0, 1, or 2.
-     * 0 is an empty cell.
+     * Represents the board as one bitboard per player, indexed by the player's token.
+     * Bit (row * 3 + col) of masks[token] is set if the player owns that cell.
+     * Index 0 is unused.
      * 1 is assigned to first player - X Symbol.
      * 2 is assigned to second player - O Symbol.
      */
-    private int[][] board;
+    private int[] masks;
+    /**
+     * lineCounts[token][line] is the number of the player's tokens on WIN_LINES[line].
+     * Updated only for the lines through the placed cell, so a win is detected in O(1).
+     */
+    private int[][] lineCounts;
+    /**
+     * Number of tokens on the board, which is also the depth of the move stack.
+     * The game is a draw when it reaches 9 without a win.
+     */
+    private int moveCount;
+    /**
+     * Moves played so far, packed as cell | player << 4. Entries from moveCount up to historyLength are
+     * moves that were undone and can be redone.
+     */
+    private int[] moveStack;
+    /**
+     * statusStack[i] is the status before move i was played.
+     */
+    private int[] statusStack;
+    /**
+     * Number of valid entries in moveStack, including undone moves.
+     */
+    private int historyLength;
+    /**
+     * Base-3 index of the board (see Bitboard.index), updated incrementally on every move.
+     */
+    private int hash;
     /**
      * The turn of the current player, either 1 or 2 but is always initialized as 1.
      */
@@ -29,6 +57,23 @@ public class Game implements Minimax{
      * Represents the current status of the game. Refer to macros.
      */
     private int status;
+    /**
+     * The search used by AI_bestMove. Defaults to alpha-beta, created on first use so that games that never search
+     * (e.g. idle server sessions) do not carry one; set to the game itself for the full-tree minimax.
+     */
+    private Minimax engine;
+    /**
+     * Packed Position of the game, republished after every committed change so that other threads read a consistent snapshot.
+     */
+    private volatile long position;
+    /**
+     * Listeners notified of committed moves and status changes. Searches never notify them.
+     */
+    private final List<GameListener> listeners = new ArrayList<>();
+    /**
+     * Source of randomness for the AI behaviors. Owned by this game, so games on different threads never share it.
+     */
+    private SplittableRandom random;
 
     // MACROS:
     public static final int ROWS = 3;
@@ -39,11 +84,75 @@ public class Game implements Minimax{
     public static final int AI_WIN = 10;
     public static final int PLAYER_WIN = -10;
 
+    /**
+     * Monte Carlo search used by AI_monteCarloMove. One per thread, since the node pool is reused between moves.
+     */
+    private static final ThreadLocal<MonteCarloTreeSearch> MONTE_CARLO = ThreadLocal.withInitial(MonteCarloTreeSearch::new);
+
+    private static final Logger LOG = Logger.getLogger(Game.class.getName());
+
+    /**
+     * Move times of the AI behaviors, recorded only when Metrics are enabled. Named as the Agents that play them.
+     */
+    private static final LatencyHistogram RANDOM_TIME = Metrics.moveTime("random");
+    private static final LatencyHistogram GENERIC_TIME = Metrics.moveTime("generic");
+    private static final LatencyHistogram BEST_TIME = Metrics.moveTime("best");
+    private static final LatencyHistogram TABLE_TIME = Metrics.moveTime("table");
+    private static final LatencyHistogram MONTE_CARLO_TIME = Metrics.moveTime("mcts");
+    private static final LatencyHistogram LEARNED_TIME = Metrics.moveTime("learned");
+
+    private static final int CENTER = 1 << 4;
+    private static final int CORNERS = 1 | 1 << 2 | 1 << 6 | 1 << 8;
+    /**
+     * AI_bestMove searches the root moves in parallel only with at least this many of them; smaller trees take
+     * less time than forking.
+     */
+    private static final int PARALLEL_ROOT_MIN_MOVES = 6;
+
 
     public Game(){
-        board = new int[ROWS][COLS];
+        masks = new int[3];
+        lineCounts = new int[3][Bitboard.WIN_LINES.length];
+        moveStack = new int[Bitboard.CELLS];
+        statusStack = new int[Bitboard.CELLS];
         currentPlayer = 1;
         status = ONGOING;
+        random = new SplittableRandom();
+        publish();
+    }
+
+    /**
+     * Creates a game whose random AI choices are reproducible.
+     * @param seed seed for the AI behaviors' random choices
+     */
+    public Game(long seed){
+        this();
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Creates an independent copy of a game, e.g. for an AI to search on another thread.
+     * The copy gets its own search engine since engines keep per-search state, and no listeners.
+     * @param other the game to copy
+     */
+    public Game(Game other){
+        masks = other.masks.clone();
+        lineCounts = new int[3][];
+        for (int token = 0; token < 3; token++)
+            lineCounts[token] = other.lineCounts[token].clone();
+        moveCount = other.moveCount;
+        moveStack = other.moveStack.clone();
+        statusStack = other.statusStack.clone();
+        historyLength = other.historyLength;
+        hash = other.hash;
+        currentPlayer = other.currentPlayer;
+        playerTurn = other.playerTurn;
+        AI_Turn = other.AI_Turn;
+        status = other.status;
+        // derive the copy's randomness from this game's, so seeded games stay reproducible
+        random = other.random.split();
+        engine = other.engine == other ? this : null;
+        position = other.position;
     }
 
     /**
@@ -57,9 +166,10 @@ public class Game implements Minimax{
             // If player is going first, then AI is going second. Otherwise AI goes first
             AI_Turn = playerTurn == 1 ? 2 : 1;
             status = ONGOING;
+            publish();
         }
         else
-            System.out.println("[Game]: Error in newGame -> playerTurn = " + playerTurn);
+            LOG.warning("Invalid playerTurn in newGame: " + playerTurn);
     }
 
     /**
@@ -69,10 +179,147 @@ public class Game implements Minimax{
      */
     public void cPlayerMove(int row, int col){
         if (validMove(row, col)){
-            board[row][col] = currentPlayer;
-            updateStatus();
-            nextPlayer();
+            int player = currentPlayer;
+            int previousStatus = status;
+            makeMove(Bitboard.cell(row, col));
+            // a new move discards the moves that could be redone
+            historyLength = moveCount;
+            publish();
+            fireMove(player, previousStatus);
+        }
+    }
+
+    /**
+     * Plays the current player's token on a cell and pushes it on the move stack.
+     * Status, current player, and hash are updated incrementally. Does not validate the cell, keep the moves
+     * that can be redone, or notify listeners; use cPlayerMove for that.
+     * @param cell an empty cell index (row * 3 + col)
+     */
+    public void makeMove(int cell){
+        int player = currentPlayer;
+        moveStack[moveCount] = cell | player << 4;
+        statusStack[moveCount] = status;
+        placeToken(player, cell);
+        if (moveCount > historyLength)
+            historyLength = moveCount;
+        nextPlayer();
+    }
+
+    /**
+     * Takes back the last move on the move stack, restoring status, current player, and hash.
+     * The move can then be redone. Does not notify listeners.
+     */
+    public void unmakeMove(){
+        moveCount--;
+        int cell = moveStack[moveCount] & 0xF;
+        int player = moveStack[moveCount] >>> 4;
+        masks[player] &= ~(1 << cell);
+        for (int line : Bitboard.LINES_THROUGH[cell])
+            lineCounts[player][line]--;
+        hash -= player * Bitboard.index(1 << cell, 0);
+        status = statusStack[moveCount];
+        currentPlayer = player;
+    }
+
+    /**
+     * Takes back the last move and notifies the listeners.
+     * @return false if there is no move to take back
+     */
+    public boolean undo(){
+        if (!canUndo())
+            return false;
+        int previousStatus = status;
+        Move move = getLastMove();
+        unmakeMove();
+        publish();
+        for (GameListener listener : listeners)
+            listener.onUndo(this, move, currentPlayer);
+        if (status != previousStatus){
+            for (GameListener listener : listeners)
+                listener.onStatusChange(this, status);
+        }
+        return true;
+    }
+
+    /**
+     * Plays the last move that was taken back again and notifies the listeners.
+     * @return false if there is no move to redo
+     */
+    public boolean redo(){
+        if (!canRedo())
+            return false;
+        int player = currentPlayer;
+        int previousStatus = status;
+        makeMove(moveStack[moveCount] & 0xF);
+        publish();
+        fireMove(player, previousStatus);
+        return true;
+    }
+
+    public boolean canUndo(){
+        return moveCount > 0;
+    }
+
+    public boolean canRedo(){
+        return historyLength > moveCount;
+    }
+
+    private void fireMove(int player, int previousStatus){
+        // headless games have no listeners; skip creating the Move
+        if (listeners.isEmpty())
+            return;
+        Move move = getLastMove();
+        for (GameListener listener : listeners)
+            listener.onMove(this, move, player);
+        if (status != previousStatus){
+            for (GameListener listener : listeners)
+                listener.onStatusChange(this, status);
+        }
+    }
+
+    /**
+     * Makes the current state visible to getPosition on other threads. Called after committed changes only, never
+     * by makeMove and unmakeMove, so searches neither expose their positions nor pay for the volatile store.
+     */
+    void publish(){
+        int lastMove = moveCount == 0 ? -1 : moveStack[moveCount - 1] & 0xF;
+        position = Position.pack(masks[1], masks[2], currentPlayer, playerTurn, status, moveCount, lastMove);
+    }
+
+    /**
+     * Places a token and updates the status from the lines through the cell and the move count only.
+     * @param player the player placing the token
+     * @param cell the cell index
+     */
+    private void placeToken(int player, int cell){
+        masks[player] |= 1 << cell;
+        moveCount++;
+        hash += player * Bitboard.index(1 << cell, 0);
+        boolean won = false;
+        for (int line : Bitboard.LINES_THROUGH[cell]){
+            if (++lineCounts[player][line] == ROWS)
+                won = true;
         }
+        if (won)
+            status = player == AI_Turn ? AI_WIN : PLAYER_WIN;
+        else
+            status = moveCount == Bitboard.CELLS ? DRAW : ONGOING;
+    }
+
+    /**
+     * Registers a listener for moves and status changes.
+     * @param listener the listener
+     */
+    public void addGameListener(GameListener listener){
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     * @param listener the listener
+     */
+    public void removeGameListener(GameListener listener){
+        listeners.remove(listener);
     }
 
     /**
@@ -80,41 +327,67 @@ public class Game implements Minimax{
      * The agent makes random (but valid) moevs, regardless of the past moves. Note at even the lowest level,
      * there is a record of past moves and current configuration of the board to be able to make valid moves.
      * Also, there is already a DETECTION OF ANY WINNING MOVE.
+     * Runs in bounded time: at most nine win checks and one random draw, with no allocation.
      */
     public void AI_randomMove(){
-        List<int[]> validMoves = new ArrayList<>();
-        boolean hasWon = false;
-        for (int row = 0; row < ROWS && !hasWon; row++){
-            for (int col = 0; col < COLS && !hasWon; col++){
-                // if possible move
-                if (board[row][col] == 0){
-                    board[row][col] = AI_Turn;
-                    // get the score after attempting this move
-                    int score = checkStatus(board, 0);
-                    // revert back to original board state
-                    board[row][col] = 0;
-                    // if move is a winning move for AI
-                    if (score == 1){
-                        // AI immediately chooses the move
-                        cPlayerMove(row, col);
-                        hasWon = true;
-                        break;
-                    }
-                    // else append to list of possible moves
-                    int[] validMove = {row, col};
-                    validMoves.add(validMove);
-                }
-            }
+        // the empty cells are the complement of both bitboards, so there is no candidate list to build
+        int empty = Bitboard.empty(masks[1], masks[2]);
+        if (empty == 0)
+            return;
+        long start = Metrics.start();
+        int cell = -1;
+        for (int open = empty; open != 0 && cell < 0; open &= open - 1){
+            // if move is a winning move for AI, AI immediately chooses the move
+            if (Bitboard.isWin(masks[AI_Turn] | Integer.lowestOneBit(open)))
+                cell = Integer.numberOfTrailingZeros(open);
         }
-        // If AI has not found a winning move
-        if (!hasWon){
-            Random randomizer = new Random();
-            randomizer.setSeed(LocalDateTime.now().getNano());
-            // Randomly select from the list of possible moves
-            int[] chosenMove = validMoves.get(randomizer.nextInt(validMoves.size()));
-            // AI performs the randomly chosen move
-            cPlayerMove(chosenMove[0], chosenMove[1]);
+        // If AI has not found a winning move, randomly select from the empty cells
+        if (cell < 0)
+            cell = randomCell(empty);
+        cPlayerMove(cell / COLS, cell % COLS);
+        Metrics.stop(RANDOM_TIME, start);
+    }
+
+    /**
+     * Level 3 AI Rational Behavior.
+     * Monte Carlo Tree Search (UCT): plays random games from the current position, focusing on the most promising
+     * moves, and picks the most explored move. Think time is capped by the search's iteration and time budgets.
+     */
+    public void AI_monteCarloMove(){
+        AI_monteCarloMove(MONTE_CARLO.get());
+    }
+
+    /**
+     * Level 3 AI Rational Behavior with a specific search, e.g. one configured with other budgets.
+     * @param search the Monte Carlo search to use
+     */
+    public void AI_monteCarloMove(MonteCarloTreeSearch search){
+        long start = Metrics.start();
+        int cell = search.search(masks[AI_Turn], masks[playerTurn], random.nextLong());
+        if (cell >= 0)
+            cPlayerMove(cell / COLS, cell % COLS);
+        Metrics.stop(MONTE_CARLO_TIME, start);
+    }
+
+    /**
+     * Plays random games from the current position and counts the results.
+     * Neither the game nor its listeners are affected. See RandomPlayouts.
+     * @param count number of playouts
+     * @return {AI wins, draws, player wins}
+     */
+    public int[] randomPlayouts(int count){
+        int[] results = new int[3];
+        if (status != ONGOING)
+            return results;
+        int mover = masks[currentPlayer], other = masks[currentPlayer == 1 ? 2 : 1];
+        RandomPlayouts.run(mover, other, count, random, results);
+        // results are from the mover's point of view
+        if (currentPlayer != AI_Turn){
+            int moverWins = results[0];
+            results[0] = results[2];
+            results[2] = moverWins;
         }
+        return results;
     }
 
     /**
@@ -124,271 +397,339 @@ public class Game implements Minimax{
      * can make generalizations, take advantage of symmetries, perform some kind of clustering of configurations, and the like.
      *
      * Our Implementation:
-     * Decision-based depending on the sequence of moves.
-     *
+     * Rule-based, in order of priority: win, block the opponent's win, fork (make two threats at once),
+     * take the center, take a corner, otherwise a random empty cell.
+     * The rules read the line counters that are kept up to date on every move, in a single pass over the
+     * eight lines, without allocating.
      */
     public void AI_genericMove()
     {
-        // First: Check the board state - how far is the opponent from winning?
-        //   Check rows with consecutive opponent-owned tiles
-        //   Check if the opponent can win by filling in the last tile
-        //      Otherwise: move randomly
-
-        // Check per row for winning move
-        for(int i = 0; i < 3; i++)
+        int empty = Bitboard.empty(masks[1], masks[2]);
+        if (empty == 0)
+            return;
+
+        long start = Metrics.start();
+        int win = 0, block = 0;
+        // cells on at least one / at least two lines holding a single AI token and nothing else
+        int once = 0, twice = 0;
+        for (int line = 0; line < Bitboard.WIN_LINES.length; line++)
         {
-            int[] row = { this.board[i][0], this.board[i][1], this.board[i][2] };
-            int rowSum = Arrays.stream(row).sum();
-
-            // Dependent on the AI's turn number
-
-            // Winning Condition
-            if(rowSum == this.getAI_Turn() * 2 && !Arrays.stream(row).anyMatch(x -> x == this.getPlayerTurn()))
-            {
-                // Fill in the remaining space
-                for(int j = 0; j < 3; j++)
-                    if(row[j] == 0)
-                    {
-                        this.cPlayerMove(i, j);
-                        return;
-                    }
-            }
-
-            // Losing Condition
-            else if(rowSum == this.getPlayerTurn() * 2 && !Arrays.stream(row).anyMatch(x -> x == this.getAI_Turn()))
-            {
-                // Fill in the remaining space
-                for(int j = 0; j < 3; j++)
-                    if(row[j] == 0)
-                    {
-                        this.cPlayerMove(i, j);
-                        return;
-                    }
-            }
-        }
-
-        // Check per column for winning move
-        for(int i = 0; i < 3; i++)
-        {
-            int[] col = { this.board[0][i], this.board[1][i], this.board[2][i] };
-            int colSum = Arrays.stream(col).sum();
-            // Dependent on the AI's turn number
-
-            // Winning Condition
-            if(colSum == this.getAI_Turn() * 2 && !Arrays.stream(col).anyMatch(x -> x == this.getPlayerTurn()))
-            {
-                // Fill in the remaining space
-                for(int j = 0; j < 3; j++)
-                    if(col[j] == 0)
-                    {
-                        this.cPlayerMove(j, i);
-                        return;
-                    }
-            }
-
-            // Losing Condition
-            else if(colSum == this.getPlayerTurn() * 2 && !Arrays.stream(col).anyMatch(x -> x == this.getAI_Turn()))
+            int own = lineCounts[AI_Turn][line];
+            int other = lineCounts[playerTurn][line];
+            int open = Bitboard.WIN_LINES[line] & empty;
+
+            if (own == 2 && other == 0 && win == 0)
+                win = open;
+            else if (other == 2 && own == 0 && block == 0)
+                block = open;
+            else if (own == 1 && other == 0)
             {
-                // Fill in the remaining space
-                for(int j = 0; j < 3; j++)
-                    if(col[j] == 0)
-                    {
-                        this.cPlayerMove(j, i);
-                        return;
-                    }
+                twice |= once & open;
+                once |= open;
             }
         }
 
-        // Check diagonals
-        for(int i = 0; i < 2; i++)
-        {
-            int[] diagonal = new int[3];
-
-            if(i == 0)
-            {
-                //System.out.println("Check left diagonal");
-                diagonal[0] = this.board[0][0];
-                diagonal[1] = this.board[1][1];
-                diagonal[2] = this.board[2][2];
-            }
-            else
-            {
-                //System.out.println("Check right diagonal");
-                diagonal[0] = this.board[0][2];
-                diagonal[1] = this.board[1][1];
-                diagonal[2] = this.board[2][0];
-            }
-
-            int diagSum = Arrays.stream(diagonal).sum();
-
-            // Dependent on the AI's turn number
-
-            // Winning Condition
-            if(diagSum == this.getAI_Turn() * 2 && !Arrays.stream(diagonal).anyMatch(x -> x == this.getPlayerTurn()))
-            {
-                //System.out.println("Checking Winning Condition");
-                // Fill in the remaining space
-                if(i == 0)
-                {
-                    if(this.board[0][0] == 0) {cPlayerMove(0,0); return;}
-                    else if(this.board[1][1] == 0) {cPlayerMove(1,1); return;}
-                    else if(this.board[2][2] == 0) {cPlayerMove(2,2); return; }
-                }
-                else {
-                    if(this.board[0][2] == 0) {cPlayerMove(0,2); return;}
-                    else if(this.board[1][1] == 0) {cPlayerMove(1,1); return;}
-                    else if(this.board[2][0] == 0) {cPlayerMove(2,0); return; }
-                }
-                System.out.println("[ERROR] Winning Move not Found");
-            }
-
-            // Losing Condition
-            else if(diagSum == this.getPlayerTurn() * 2 && !Arrays.stream(diagonal).anyMatch(x -> x == this.getAI_Turn()))
-            {
-                //System.out.println("Checking Losing Condition");
-                // Fill in the remaining space
-                if(i == 0)
-                {
-                    if(this.board[0][0] == 0) {cPlayerMove(0,0); return;}
-                    else if(this.board[1][1] == 0) {cPlayerMove(1,1); return;}
-                    else if(this.board[2][2] == 0) {cPlayerMove(2,2); return; }
-                }
-                else {
-                    if(this.board[0][2] == 0) {cPlayerMove(0,2); return;}
-                    else if(this.board[1][1] == 0) {cPlayerMove(1,1); return;}
-                    else if(this.board[2][0] == 0) {cPlayerMove(2,0); return; }
-                }
-                System.out.println("[ERROR] Losing Move not Found");
-            }
-        }
+        // Lowest winning, blocking, or forking cell; a random corner or empty cell otherwise
+        int cell;
+        if (win != 0)
+            cell = Integer.numberOfTrailingZeros(win);
+        else if (block != 0)
+            cell = Integer.numberOfTrailingZeros(block);
+        else if (twice != 0)
+            cell = Integer.numberOfTrailingZeros(twice);
+        else if ((empty & CENTER) != 0)
+            cell = Integer.numberOfTrailingZeros(CENTER);
+        else if ((empty & CORNERS) != 0)
+            cell = randomCell(empty & CORNERS);
+        else
+            cell = randomCell(empty);
+        cPlayerMove(cell / COLS, cell % COLS);
+        Metrics.stop(GENERIC_TIME, start);
+    }
 
-        // No winning move: execute random move
-        while(true)
-        {
-            Random rand = new Random(LocalTime.now().getNano());
-            int row = rand.nextInt(3);
-            int col = rand.nextInt(3);
+    /**
+     * Picks one of the cells in a mask uniformly at random, without allocating.
+     * @param cells a non-empty cell mask
+     * @return the chosen cell index
+     */
+    private int randomCell(int cells){
+        return Bitboard.nthCell(cells, random.nextInt(Integer.bitCount(cells)));
+    }
 
-            // Attempt to move
-            if(this.board[row][col] == 0)
-            {
-                this.cPlayerMove(row, col);
-                return;
-            }
-        }
+    /**
+     * Reseeds the AI behaviors' random choices, for reproducible runs.
+     * @param seed the seed
+     */
+    public void setSeed(long seed){
+        random = new SplittableRandom(seed);
     }
 
     /**
-     * Updates the current status of the game based on baord state.
+     * Updates the current status of the game with a full scan of the board state.
      * Either ONGOING, PLAYER_WIN/AI_WIN, or DRAW.
      */
     public void updateStatus(){
-        status = checkStatus(board, 0);
+        status = checkStatus(masks[AI_Turn], masks[playerTurn], 0);
     }
 
     /**
-     * Can be optimized further.
-     * Returns the current status of the game.
-     * Returns one of the following: -1 : AI_WIN | 1 : PLAYER_WIN | 0 : TIED | 999 : ONGOING
+     * Returns the current status of the given board.
+     * Returns one of the following: AI_WIN - depth | PLAYER_WIN + depth | DRAW | ONGOING
      * @return returns the current status of the game
      */
     public int checkStatus(int[][] board, int depth) {
-        // check if there is already a winner
-        // check rows
-        for (int row = 0; row < ROWS; row++){
-            if (board[row][0] == board[row][1] && board[row][0] == board[row][2] && board[row][0] != 0){
-                int winner = board[row][0];
-                // if the winner is the AI, return macro for AI
-                if (winner == AI_Turn){
-                    return AI_WIN - depth; // the bigger the depth, the score becomes worse
-                }
-                else
-                    return PLAYER_WIN + depth; // the lower the depth, the score becomes better
-            }
-        }
-        // check columns
-        for (int col = 0; col < COLS; col++){
-            if (board[0][col] == board[1][col] && board[0][col] == board[2][col] && board[0][col] != 0){
-                int winner = board[0][col];
-                if (winner == AI_Turn){
-                    return AI_WIN - depth; // the bigger the depth, the score becomes worse
-                }
-                else
-                    return PLAYER_WIN + depth; // the lower the depth, the score becomes better
-            }
-        }
-        // check right diagonal
-        if (board[0][0] == board[1][1] && board[0][0] == board[2][2] && board[0][0] != 0){
-            int winner = board[0][0];
-            if (winner == AI_Turn){
-                return AI_WIN - depth; // the bigger the depth, the score becomes worse
-            }
-            else
-                return PLAYER_WIN + depth; // the lower the depth, the score becomes better
-        }
-
-        // check left diagonal
-        if (board[0][2] == board[1][1] && board[0][2] == board[2][0] && board[0][2] != 0){
-            int winner = board[0][2];
-            if (winner == AI_Turn){
-                return AI_WIN - depth; // the bigger the depth, the score becomes worse
-            }
-            else
-                return PLAYER_WIN + depth; // the lower the depth, the score becomes better
-        }
+        return checkStatus(Bitboard.toMask(board, AI_Turn), Bitboard.toMask(board, playerTurn), depth);
+    }
 
-        // check if draw
-        if (isDraw())
+    /**
+     * Bitboard version of checkStatus. Each winning line is a single mask-AND compare.
+     * @param aiMask cells owned by the AI
+     * @param playerMask cells owned by the human player
+     * @param depth depth of the position in the search, used to prefer faster wins
+     * @return AI_WIN - depth | PLAYER_WIN + depth | DRAW | ONGOING
+     */
+    public int checkStatus(int aiMask, int playerMask, int depth) {
+        if (Bitboard.isWin(aiMask))
+            return AI_WIN - depth; // the bigger the depth, the score becomes worse
+        if (Bitboard.isWin(playerMask))
+            return PLAYER_WIN + depth; // the lower the depth, the score becomes better
+        // no empty cell, it's a draw
+        if ((aiMask | playerMask) == Bitboard.FULL)
             return DRAW;
-
         // else it's still ongoing
         return ONGOING;
     }
 
     /**
-     * Return true if it is a draw (no more 0's)
+     * Return true if it is a draw (no more empty cells)
      * @return true if it is a draw
      */
     public boolean isDraw() {
-        for (int row = 0; row < ROWS; ++row) {
-            for (int col = 0; col < COLS; ++col) {
-                if (board[row][col] == 0) {
-                    return false;  // an empty cell found, not draw, exit
-                }
-            }
-        }
-        return true;  // no empty cell, it's a draw
+        return moveCount == Bitboard.CELLS;
     }
 
+    /**
+     * Level 2 AI Rational Behavior.
+     * Plays the first move (in row-major order) with the best minimax score, using the selected search engine.
+     * With enough empty cells and more than one core, the root moves are searched in parallel (see rootScores).
+     */
     public void AI_bestMove(){
+        long start = Metrics.start();
+        int aiMask = masks[AI_Turn], playerMask = masks[playerTurn];
+        int empty = Bitboard.empty(aiMask, playerMask);
+        int[] cells = new int[Integer.bitCount(empty)];
+        // empty cells are listed in row-major order, so ties still go to the first cell found
+        for (int i = 0; empty != 0; empty &= empty - 1)
+            cells[i++] = Integer.numberOfTrailingZeros(empty);
+        int[] scores = rootScores(aiMask, playerMask, cells);
+
         int bestScore = Integer.MIN_VALUE;
-        int targetRow = 999, targetCol= 999;
-        int depth = 0;
-        for(int row = 0; row < ROWS; row++){
-            for(int col = 0; col < COLS; col++){
-                if(board[row][col] == 0){
-                    board[row][col] = AI_Turn;
-                    int score = minimax(board, false, depth);
-                    if (score > bestScore){
-                        bestScore = score;
-                        targetRow = row;
-                        targetCol = col;
-                    }
-                    board[row][col] = 0; // reset
-                }
+        int target = -1;
+        for (int i = 0; i < cells.length; i++){
+            if (scores[i] > bestScore){
+                bestScore = scores[i];
+                target = cells[i];
             }
         }
-        cPlayerMove(targetRow, targetCol);
+        if (target >= 0)
+            cPlayerMove(target / COLS, target % COLS);
+        Metrics.stop(BEST_TIME, start);
+    }
+
+    /**
+     * Scores each root move with the minimax engine. When parallel, every move is a fork-join task with its own
+     * engine (Minimax.fork); the scores are exact either way, so the move picked from them does not depend on
+     * scheduling.
+     * @param cells the root moves
+     * @return the score of each root move, in the same order
+     */
+    private int[] rootScores(int aiMask, int playerMask, int[] cells){
+        int depth = 0;
+        int[] scores = new int[cells.length];
+        Minimax engine = getEngine();
+        if (cells.length < PARALLEL_ROOT_MIN_MOVES || ForkJoinPool.getCommonPoolParallelism() < 2){
+            for (int i = 0; i < cells.length; i++)
+                scores[i] = engine.minimax(aiMask | 1 << cells[i], playerMask, false, depth);
+            return scores;
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(cells.length);
+        for (int i = 0; i < cells.length; i++){
+            int root = i;
+            Minimax searcher = engine.fork();
+            tasks.add(ForkJoinTask.adapt(() -> {
+                scores[root] = searcher.minimax(aiMask | 1 << cells[root], playerMask, false, depth);
+            }));
+        }
+        // invokeAll joins every task, which also publishes the scores they wrote
+        ForkJoinTask.invokeAll(tasks);
+        return scores;
+    }
+
+    /**
+     * Level 2 AI Rational Behavior without searching.
+     * Looks the move up in the precomputed MoveTable, which is the hard-coded table with a move for every
+     * possible state. Picks the same move as AI_bestMove.
+     */
+    public void AI_tableMove(){
+        long start = Metrics.start();
+        int best = MoveTable.get().bestMoves(masks[AI_Turn], masks[playerTurn]);
+        if (best != 0){
+            int cell = Integer.numberOfTrailingZeros(best);
+            cPlayerMove(cell / COLS, cell % COLS);
+        }
+        Metrics.stop(TABLE_TIME, start);
+    }
+
+    /**
+     * Plays the move with the best learned afterstate value (see ValueTrainer).
+     */
+    public void AI_learnedMove(){
+        long start = Metrics.start();
+        int cell = ValueModel.get().bestMove(masks[AI_Turn], masks[playerTurn]);
+        if (cell >= 0)
+            cPlayerMove(cell / COLS, cell % COLS);
+        Metrics.stop(LEARNED_TIME, start);
     }
 
     /**
-     * Returns the current board state of the game.
+     * Returns the search engine used by AI_bestMove.
+     * @return the search engine
+     */
+    public Minimax getEngine(){
+        if (engine == null)
+            engine = new AlphaBetaMinimax(this);
+        return engine;
+    }
+
+    /**
+     * Selects the search engine used by AI_bestMove, e.g. the game itself for the unpruned minimax.
+     * @param engine the search engine
+     */
+    public void setEngine(Minimax engine){
+        this.engine = engine;
+    }
+
+    /**
+     * Returns the current board state of the game as a 2D view of the bitboards.
+     * The board is filled with values of either 0, 1, or 2.
+     * 0 is an empty cell, 1 is X, and 2 is O.
+     * The returned array is a copy; writing to it does not change the game.
      * @return the current board state of the game.
      */
     public int[][] getBoard(){
+        int[][] board = new int[ROWS][COLS];
+        for (int row = 0; row < ROWS; row++){
+            for (int col = 0; col < COLS; col++)
+                board[row][col] = cellAt(row, col);
+        }
         return board;
     }
 
+    /**
+     * Returns the token (0, 1, or 2) at the given cell.
+     * @param row target row
+     * @param col target column
+     * @return the token at the cell
+     */
+    private int cellAt(int row, int col){
+        int bit = 1 << Bitboard.cell(row, col);
+        if ((masks[1] & bit) != 0)
+            return 1;
+        if ((masks[2] & bit) != 0)
+            return 2;
+        return 0;
+    }
+
+    /**
+     * Swaps which side the AI behaviors play for, e.g. so two AI behaviors can play each other.
+     * The status, and the statuses saved for undo and redo, are re-evaluated from the new AI's point of view.
+     */
+    public void swapSides(){
+        int previousAI = AI_Turn;
+        AI_Turn = playerTurn;
+        playerTurn = previousAI;
+        // PLAYER_WIN is -AI_WIN, so a win for either side is negated; DRAW and ONGOING read the same from either side
+        for (int i = 0; i < historyLength; i++){
+            if (statusStack[i] != ONGOING)
+                statusStack[i] = -statusStack[i];
+        }
+        updateStatus();
+        publish();
+    }
+
+    /**
+     * Returns the winning player regardless of which side is the AI.
+     * @return 1 if X won, 2 if O won, 0 if nobody has won (yet)
+     */
+    public int getWinner(){
+        if (Bitboard.isWin(masks[1]))
+            return 1;
+        if (Bitboard.isWin(masks[2]))
+            return 2;
+        return 0;
+    }
+
+    /**
+     * Returns the last move played.
+     * @return the last move, or null if no move has been played
+     */
+    public Move getLastMove(){
+        return moveCount == 0 ? null : Move.ofCell(moveStack[moveCount - 1] & 0xF);
+    }
+
+    /**
+     * Returns the cell of a move in the order the moves were played.
+     * @param index the move number, from 0 to getMoveCount() - 1
+     * @return the cell index (row * 3 + col)
+     */
+    public int getMoveCell(int index){
+        return moveStack[index] & 0xF;
+    }
+
+    /**
+     * Returns who played a move, in the order the moves were played.
+     * @param index the move number, from 0 to getMoveCount() - 1
+     * @return 1 for X, 2 for O
+     */
+    public int getMovePlayer(int index){
+        return moveStack[index] >>> 4;
+    }
+
+    /**
+     * Returns the number of moves played (tokens on the board).
+     * @return the move count
+     */
+    public int getMoveCount(){
+        return moveCount;
+    }
+
+    /**
+     * Returns an immutable snapshot of the game as of its last committed change (cPlayerMove, undo, redo, newGame,
+     * swapSides). Positions reached with makeMove alone are not published.
+     * Unlike the other getters, this is safe to call from any thread while the game is being played.
+     * @return the position
+     */
+    public Position getPosition(){
+        return Position.of(position);
+    }
+
+    /**
+     * Returns the cells owned by a player as a bitboard (bit row * 3 + col).
+     * @param player 1 for X, 2 for O
+     * @return the player's cells
+     */
+    public int getMask(int player){
+        return masks[player];
+    }
+
+    /**
+     * Returns the base-3 index of the board: the sum of token * 3^cell over all cells.
+     * @return the board hash
+     */
+    public int getHash(){
+        return hash;
+    }
+
     /**
      * Returns the current player / whose turn it currently is
      * @return the current player
@@ -431,8 +772,8 @@ public class Game implements Minimax{
      * @return true if the position is valid, otherwise returns false
      */
     private boolean validMove(int row, int col){
-        if (row >= 0 && row < ROWS && col >= 0 && col <= COLS){
-            if (board[row][col] == 0)
+        if (row >= 0 && row < ROWS && col >= 0 && col < COLS){
+            if (cellAt(row, col) == 0)
                 return true;
             else{
                 //System.out.println("[Game]: Invalid move");
@@ -455,7 +796,7 @@ public class Game implements Minimax{
         for (int row = 0; row < ROWS; row++){
             System.out.print("|");
             for (int col = 0; col < COLS; col++){
-                int token = board[row][col];
+                int token = cellAt(row, col);
                 char ch = '_';
                 if (token == 1)
                     ch = 'X';
@@ -470,43 +811,67 @@ public class Game implements Minimax{
 
     @Override
     public int minimax(int[][] board, boolean isMax, int depth) {
-        int status = checkStatus(board, depth);
-        int bestScore;
+        return minimax(Bitboard.toMask(board, AI_Turn), Bitboard.toMask(board, playerTurn), isMax, depth);
+    }
+
+    /**
+     * Full-tree minimax over the bitboards. Empty cells are walked by clearing the lowest set bit of the empty mask.
+     * @param aiMask cells owned by the AI
+     * @param playerMask cells owned by the human player
+     * @param isMax true if it is the AI's turn
+     * @param depth depth of the position in the search
+     * @return the minimax score of the position
+     */
+    @Override
+    public int minimax(int aiMask, int playerMask, boolean isMax, int depth) {
+        int status = checkStatus(aiMask, playerMask, depth);
         // Have reached a leaf node (base case)
-        if (status != 999)
+        if (status != ONGOING)
             return status;
+        return search(aiMask, playerMask, isMax, depth, Integer.bitCount(aiMask | playerMask));
+    }
+
+    /**
+     * Minimax below a position known to be ongoing. Since the position has no win, a child is a leaf only if its move
+     * completes a line (one table lookup on the mover's mask) or fills the board; no full board scan is needed.
+     * @param moves number of tokens on the board
+     */
+    private int search(int aiMask, int playerMask, boolean isMax, int depth, int moves) {
+        int bestScore;
+        boolean full = moves + 1 == Bitboard.CELLS;
+        int empty = Bitboard.empty(aiMask, playerMask);
         // AI is maximizing its best score
         if (isMax){
             bestScore = Integer.MIN_VALUE;
-            for (int row = 0; row < ROWS; row++){
-                for (int col = 0; col < COLS; col++){
-                    // available move
-                    if (board[row][col] == 0){
-                        board[row][col] = AI_Turn;
-                        // compute score
-                        int score = minimax(board, false, depth + 1);
-                        // reset board state
-                        board[row][col] = 0;
-                        bestScore = Math.max(score, bestScore);
-                    }
-                }
+            for (; empty != 0; empty &= empty - 1){
+                int cell = Integer.numberOfTrailingZeros(empty);
+                int next = aiMask | 1 << cell;
+                // compute score of the available move
+                int score;
+                if (Bitboard.isWin(next))
+                    score = AI_WIN - (depth + 1);
+                else if (full)
+                    score = DRAW;
+                else
+                    score = search(next, playerMask, false, depth + 1, moves + 1);
+                bestScore = Math.max(score, bestScore);
             }
         }
         // Player is minimizing the AI's best score
         else{
             bestScore = Integer.MAX_VALUE;
-            for (int row = 0; row < ROWS; row++){
-                for (int col = 0; col < COLS; col++){
-                    // available move
-                    if (board[row][col] == 0){
-                        board[row][col] = playerTurn;
-                        // compute score
-                        int score = minimax(board, true, depth + 1);
-                        // reset board state
-                        board[row][col] = 0;
-                        bestScore = Math.min(score, bestScore);
-                    }
-                }
+            for (; empty != 0; empty &= empty - 1){
+                int cell = Integer.numberOfTrailingZeros(empty);
+                int next = playerMask | 1 << cell;
+                // compute score of the available move
+                int score;
+                if (Bitboard.isWin(next))
+                    score = PLAYER_WIN + (depth + 1);
+                else if (full)
+                    score = DRAW;
+                else
+                    score = search(aiMask, next, true, depth + 1, moves + 1);
+                bestScore = Math.min(score, bestScore);
             }
         }
         return bestScore;
@@ -514,5 +879,3 @@ public class Game implements Minimax{
 
 
 }
-
-
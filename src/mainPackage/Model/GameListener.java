@@ -0,0 +1,32 @@
+package mainPackage.Model;
+
+/**
+ * Receives the events of a Game. Events are delivered on the thread that played the move.
+ */
+public interface GameListener {
+    /**
+     * Called after a move has been placed on the board.
+     * @param game the game the move was played in
+     * @param move the move
+     * @param player the player (1 or 2) who played it
+     */
+    default void onMove(Game game, Move move, int player){
+    }
+
+    /**
+     * Called after a move has been taken back.
+     * @param game the game the move was taken back in
+     * @param move the move taken back
+     * @param player the player (1 or 2) who had played it
+     */
+    default void onUndo(Game game, Move move, int player){
+    }
+
+    /**
+     * Called when the status of the game changes, i.e. when it ends, or resumes after an undo.
+     * @param game the game
+     * @param status the new status (DRAW, AI_WIN, PLAYER_WIN, or ONGOING)
+     */
+    default void onStatusChange(Game game, int status){
+    }
+}
@@ -0,0 +1,171 @@
+package mainPackage.Model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary record of one finished game.
+ *
+ * Layout (HEADER_BYTES + one byte per move):
+ * byte X agent id, byte O agent id, byte AI level (-1 if not applicable),
+ * byte winner (0 draw, 1 X, 2 O) | move count << 2, long seed,
+ * then each move as cell | player << 4, the same packing as Game's move stack.
+ */
+public final class GameRecord {
+    public static final int HEADER_BYTES = 12;
+    /**
+     * Agent id of a human player.
+     */
+    public static final byte HUMAN = -1;
+
+    private final byte xAgent;
+    private final byte oAgent;
+    private final byte level;
+    private final byte winner;
+    private final long seed;
+    private final byte[] moves;
+
+    public GameRecord(int xAgent, int oAgent, int level, int winner, long seed, byte[] moves){
+        this.xAgent = (byte) xAgent;
+        this.oAgent = (byte) oAgent;
+        this.level = (byte) level;
+        this.winner = (byte) winner;
+        this.seed = seed;
+        this.moves = moves.clone();
+    }
+
+    /**
+     * Records a game from its move history.
+     * @param game the game, normally finished
+     * @param xAgent id of the agent playing X
+     * @param oAgent id of the agent playing O
+     * @param level the AI level, or -1
+     * @param seed the seed the game was played with
+     * @return the record
+     */
+    public static GameRecord of(Game game, int xAgent, int oAgent, int level, long seed){
+        byte[] moves = new byte[game.getMoveCount()];
+        for (int i = 0; i < moves.length; i++)
+            moves[i] = (byte) (game.getMoveCell(i) | game.getMovePlayer(i) << 4);
+        return new GameRecord(xAgent, oAgent, level, game.getWinner(), seed, moves);
+    }
+
+    /**
+     * Returns the number of bytes the record takes when written.
+     * @return the record size
+     */
+    public int size(){
+        return HEADER_BYTES + moves.length;
+    }
+
+    /**
+     * Writes the record at the buffer's position.
+     * @param buffer a buffer with at least size() bytes remaining
+     */
+    public void write(ByteBuffer buffer){
+        buffer.put(xAgent).put(oAgent).put(level).put((byte) (winner | moves.length << 2)).putLong(seed).put(moves);
+    }
+
+    /**
+     * Reads a record at the buffer's position.
+     * @param buffer a buffer holding a whole record
+     * @return the record
+     * @throws IOException if the record does not describe a game: more moves than cells, an unknown winner,
+     * a cell off the board or already taken, or players not taking turns from X
+     */
+    public static GameRecord read(ByteBuffer buffer) throws IOException {
+        byte xAgent = buffer.get(), oAgent = buffer.get(), level = buffer.get();
+        int result = buffer.get() & 0xFF;
+        long seed = buffer.getLong();
+        int count = result >>> 2, winner = result & 3;
+        if (count > Bitboard.CELLS)
+            throw new IOException("Invalid game record: " + count + " moves on a board of " + Bitboard.CELLS
+                    + " cells");
+        if (winner > 2)
+            throw new IOException("Invalid game record: winner " + winner);
+        byte[] moves = new byte[count];
+        buffer.get(moves);
+        int taken = 0;
+        for (int i = 0; i < count; i++){
+            int cell = moves[i] & 0xF, player = (moves[i] & 0xFF) >>> 4;
+            if (cell >= Bitboard.CELLS)
+                throw new IOException("Invalid game record: move " + (i + 1) + " plays cell " + cell
+                        + ", off the board");
+            if ((taken & 1 << cell) != 0)
+                throw new IOException("Invalid game record: move " + (i + 1) + " plays cell " + cell
+                        + ", which is taken");
+            if (player != 1 + (i & 1))
+                throw new IOException("Invalid game record: move " + (i + 1) + " is played by player " + player);
+            taken |= 1 << cell;
+        }
+        return new GameRecord(xAgent, oAgent, level, winner, seed, moves);
+    }
+
+    /**
+     * Returns the size of the record starting at the buffer's position, reading only its header.
+     * @param buffer a buffer holding at least HEADER_BYTES of the record
+     * @return the record size
+     */
+    static int sizeAt(ByteBuffer buffer){
+        return HEADER_BYTES + ((buffer.get(buffer.position() + 3) & 0xFF) >>> 2);
+    }
+
+    /**
+     * Plays the recorded moves on a new game.
+     * @return the game in its final position
+     */
+    public Game replay(){
+        Game game = new Game(seed);
+        game.newGame(2);
+        for (byte move : moves)
+            game.makeMove(move & 0xF);
+        game.publish();
+        return game;
+    }
+
+    public int getXAgent(){
+        return xAgent;
+    }
+
+    public int getOAgent(){
+        return oAgent;
+    }
+
+    public int getLevel(){
+        return level;
+    }
+
+    /**
+     * Returns the winner of the game.
+     * @return 1 if X won, 2 if O won, 0 if drawn
+     */
+    public int getWinner(){
+        return winner;
+    }
+
+    public long getSeed(){
+        return seed;
+    }
+
+    public int getMoveCount(){
+        return moves.length;
+    }
+
+    /**
+     * Returns the cell of a move.
+     * @param index the move number
+     * @return the cell index (row * 3 + col)
+     */
+    public int getMoveCell(int index){
+        return moves[index] & 0xF;
+    }
+
+    /**
+     * Returns who played a move.
+     * @param index the move number
+     * @return 1 for X, 2 for O
+     */
+    public int getMovePlayer(int index){
+        return moves[index] >>> 4;
+    }
+}
@@ -0,0 +1,131 @@
+package mainPackage.Model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streams the GameRecords of a directory written by GameRecordWriter, one segment after another.
+ * Only one buffer of records is held in memory at a time, so any number of records can be replayed.
+ *
+ * Usage: GameRecordReader directory (prints a summary and checks every record by replaying it)
+ */
+public class GameRecordReader implements Closeable {
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private static final Logger LOG = Logger.getLogger(GameRecordReader.class.getName());
+
+    private final List<Path> segments;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private FileChannel channel;
+    private int segment = -1;
+    private boolean endOfSegment = true;
+
+    /**
+     * @param directory directory of the segment files
+     */
+    public GameRecordReader(Path directory) throws IOException {
+        segments = segments(directory);
+        buffer.limit(0);
+    }
+
+    /**
+     * Lists the segment files of a directory in the order they were written.
+     * @param directory directory of the segment files
+     * @return the segment paths, empty if the directory does not exist
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory))
+            return List.of();
+        try (Stream<Path> files = Files.list(directory)){
+            return files.filter(path -> path.getFileName().toString().matches("games-\\d{6}\\.rec"))
+                    .sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Returns the next record.
+     * @return the record, or null after the last one
+     * @throws IOException if a segment cannot be read or holds a malformed record
+     */
+    public GameRecord next() throws IOException {
+        while (true){
+            if (buffer.remaining() >= GameRecord.HEADER_BYTES && buffer.remaining() >= GameRecord.sizeAt(buffer))
+                return GameRecord.read(buffer);
+            if (!endOfSegment){
+                fill();
+                continue;
+            }
+            if (buffer.hasRemaining())
+                LOG.warning("Skipping truncated record at the end of " + segments.get(segment));
+            if (!openNextSegment())
+                return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null)
+            channel.close();
+    }
+
+    // Keeps the unread bytes and reads more after them
+    private void fill() throws IOException {
+        buffer.compact();
+        if (channel.read(buffer) < 0)
+            endOfSegment = true;
+        buffer.flip();
+    }
+
+    private boolean openNextSegment() throws IOException {
+        close();
+        buffer.clear().limit(0);
+        while (++segment < segments.size()){
+            channel = FileChannel.open(segments.get(segment), StandardOpenOption.READ);
+            endOfSegment = false;
+            while (buffer.remaining() < GameRecordWriter.SEGMENT_HEADER_BYTES && !endOfSegment)
+                fill();
+            if (buffer.remaining() >= GameRecordWriter.SEGMENT_HEADER_BYTES && buffer.getInt() == GameRecordWriter.MAGIC
+                    && buffer.getInt() == GameRecordWriter.VERSION)
+                return true;
+            LOG.warning("Skipping invalid segment " + segments.get(segment));
+            channel.close();
+            buffer.clear().limit(0);
+        }
+        channel = null;
+        return false;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1){
+            System.out.println("Usage: GameRecordReader directory");
+            return;
+        }
+        long start = System.nanoTime();
+        long games = 0, moves = 0, mismatches = 0;
+        long[] winners = new long[3];
+        try (GameRecordReader reader = new GameRecordReader(Paths.get(args[0]))){
+            for (GameRecord record = reader.next(); record != null; record = reader.next()){
+                games++;
+                moves += record.getMoveCount();
+                winners[record.getWinner()]++;
+                if (record.replay().getWinner() != record.getWinner())
+                    mismatches++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("[GameRecordReader]: %d games (%d moves) replayed in %.2f s (%.0f games/s)%n",
+                games, moves, seconds, games / seconds);
+        System.out.printf("[GameRecordReader]: X won %d | O won %d | drawn %d | replay mismatches %d%n",
+                winners[1], winners[2], winners[0], mismatches);
+    }
+}
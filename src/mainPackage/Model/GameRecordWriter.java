@@ -0,0 +1,103 @@
+package mainPackage.Model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends GameRecords to segment files in a directory, through a buffered file channel.
+ *
+ * Segments are named games-000000.rec, games-000001.rec, ... and start with int MAGIC, int VERSION, followed by
+ * records back to back. A new segment is started when the current one would exceed the segment size, and a writer
+ * never reopens an existing segment. append is thread-safe.
+ */
+public class GameRecordWriter implements Closeable {
+    public static final int MAGIC = 0x54545452; // "TTTR"
+    public static final int VERSION = 1;
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+
+    static final int SEGMENT_HEADER_BYTES = 8;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private FileChannel channel;
+    private int segment;
+    private long written;
+    private long records;
+
+    public GameRecordWriter(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * @param directory directory of the segment files, created if missing
+     * @param segmentBytes maximum size of a segment file
+     */
+    public GameRecordWriter(Path directory, long segmentBytes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        // continue after the last existing segment
+        List<Path> existing = GameRecordReader.segments(directory);
+        if (!existing.isEmpty()){
+            String last = existing.get(existing.size() - 1).getFileName().toString();
+            segment = Integer.parseInt(last.substring(6, 12)) + 1;
+        }
+        openSegment();
+    }
+
+    /**
+     * Appends one record.
+     * @param record the record
+     */
+    public synchronized void append(GameRecord record) throws IOException {
+        int size = record.size();
+        if (written + buffer.position() + size > segmentBytes){
+            flush();
+            channel.close();
+            segment++;
+            openSegment();
+        }
+        if (buffer.remaining() < size)
+            flush();
+        record.write(buffer);
+        records++;
+    }
+
+    /**
+     * Returns the number of records appended by this writer.
+     * @return the record count
+     */
+    public synchronized long getRecords(){
+        return records;
+    }
+
+    /**
+     * Writes the buffered records to the current segment.
+     */
+    public synchronized void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            written += channel.write(buffer);
+        buffer.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void openSegment() throws IOException {
+        channel = FileChannel.open(directory.resolve(String.format("games-%06d.rec", segment)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        buffer.putInt(MAGIC).putInt(VERSION);
+        written = 0;
+    }
+}
@@ -0,0 +1,169 @@
+package mainPackage.Model;
+
+/**
+ * Generalized tic-tac-toe: an N x N board where K in a row (horizontally, vertically, or diagonally) wins,
+ * e.g. 4 x 4 with K = 3, or 15 x 15 gomoku with K = 5.
+ * Cells are indexed row * N + col and hold 0 (empty), 1 (X), or 2 (O). X always moves first.
+ *
+ * A win is checked incrementally: only the four lines through the last placed cell are scanned.
+ */
+public class GeneralGame {
+    /**
+     * Row and column steps of the four line directions: horizontal, vertical, diagonal, anti-diagonal.
+     */
+    private static final int[][] DIRECTIONS = { {0, 1}, {1, 0}, {1, 1}, {1, -1} };
+
+    private final int size;
+    private final int winLength;
+    private final int[] cells;
+    private int currentPlayer;
+    private int moveCount;
+    /**
+     * 1 or 2 once a player has K in a row, otherwise 0.
+     */
+    private int winner;
+
+    /**
+     * Creates an empty board.
+     * @param size number of rows and columns (N)
+     * @param winLength number in a row needed to win (K), at most N
+     */
+    public GeneralGame(int size, int winLength){
+        if (size < 1 || winLength < 1 || winLength > size)
+            throw new IllegalArgumentException("[GeneralGame]: Invalid size " + size + " / win length " + winLength);
+        this.size = size;
+        this.winLength = winLength;
+        cells = new int[size * size];
+        currentPlayer = 1;
+    }
+
+    /**
+     * Creates an independent copy of a game, e.g. for a search on another thread.
+     * @param other the game to copy
+     */
+    public GeneralGame(GeneralGame other){
+        size = other.size;
+        winLength = other.winLength;
+        cells = other.cells.clone();
+        currentPlayer = other.currentPlayer;
+        moveCount = other.moveCount;
+        winner = other.winner;
+    }
+
+    /**
+     * Current player places a token on the board IF it is a valid move and the game is not over.
+     * @param row target row
+     * @param col target column
+     * @return true if the move was played
+     */
+    public boolean place(int row, int col){
+        if (isOver() || row < 0 || row >= size || col < 0 || col >= size || cells[row * size + col] != 0)
+            return false;
+        makeMove(row * size + col);
+        return true;
+    }
+
+    /**
+     * Plays the current player's token on an empty cell without validation. Used by the search.
+     * @param cell the cell index
+     */
+    public void makeMove(int cell){
+        cells[cell] = currentPlayer;
+        moveCount++;
+        if (completesLine(cell))
+            winner = currentPlayer;
+        currentPlayer = 3 - currentPlayer;
+    }
+
+    /**
+     * Takes back the last move, which was played on the given cell.
+     * @param cell the cell index of the last move
+     */
+    public void unmakeMove(int cell){
+        cells[cell] = 0;
+        moveCount--;
+        // the game was still going before the move
+        winner = 0;
+        currentPlayer = 3 - currentPlayer;
+    }
+
+    /**
+     * Returns true if the token on the cell is part of K in a row. Only the four lines through the cell are scanned.
+     */
+    private boolean completesLine(int cell){
+        int player = cells[cell];
+        int row = cell / size, col = cell % size;
+        for (int[] direction : DIRECTIONS){
+            int count = 1 + count(row, col, direction[0], direction[1], player)
+                    + count(row, col, -direction[0], -direction[1], player);
+            if (count >= winLength)
+                return true;
+        }
+        return false;
+    }
+
+    // Number of consecutive tokens of the player from (row, col), exclusive, in one direction
+    private int count(int row, int col, int dRow, int dCol, int player){
+        int count = 0;
+        for (int r = row + dRow, c = col + dCol; r >= 0 && r < size && c >= 0 && c < size && cells[r * size + c] == player;
+             r += dRow, c += dCol)
+            count++;
+        return count;
+    }
+
+    public int getSize(){
+        return size;
+    }
+
+    public int getWinLength(){
+        return winLength;
+    }
+
+    /**
+     * Returns the player to move (1 or 2).
+     * @return the current player
+     */
+    public int getCurrentPlayer(){
+        return currentPlayer;
+    }
+
+    /**
+     * Returns the winner.
+     * @return 1 or 2 if that player has K in a row, otherwise 0
+     */
+    public int getWinner(){
+        return winner;
+    }
+
+    public int getMoveCount(){
+        return moveCount;
+    }
+
+    /**
+     * Returns the token on a cell.
+     * @param cell the cell index (row * N + col)
+     * @return 0 if empty, 1 for X, 2 for O
+     */
+    public int get(int cell){
+        return cells[cell];
+    }
+
+    /**
+     * Returns true if the game has been won or the board is full.
+     * @return true if the game is over
+     */
+    public boolean isOver(){
+        return winner != 0 || moveCount == cells.length;
+    }
+
+    /**
+     * Returns a copy of the board as rows of tokens.
+     * @return the board
+     */
+    public int[][] getBoard(){
+        int[][] board = new int[size][size];
+        for (int cell = 0; cell < cells.length; cell++)
+            board[cell / size][cell % size] = cells[cell];
+        return board;
+    }
+}
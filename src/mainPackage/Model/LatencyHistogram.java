@@ -0,0 +1,124 @@
+package mainPackage.Model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds, in the style of HdrHistogram: values below 64 get a bucket each,
+ * and every power of two above is split into 32 buckets, so any recorded value is known within about 3%.
+ * Recording is a couple of shifts and one atomic increment, with a fixed footprint of about 15 KB.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    /**
+     * Values below this have exact buckets.
+     */
+    private static final int LINEAR = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = LINEAR + (63 - (SUB_BITS + 1)) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram(String name){
+        this.name = name;
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    /**
+     * Records one duration.
+     * @param nanos the duration in nanoseconds; negative values count as 0
+     */
+    public void record(long nanos){
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(value));
+        total.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    private static int bucket(long value){
+        if (value < LINEAR)
+            return (int) value;
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BITS;
+        return LINEAR + (magnitude - (SUB_BITS + 1)) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    // Highest value that falls into a bucket
+    private static long highestValue(int bucket){
+        if (bucket < LINEAR)
+            return bucket;
+        int magnitude = (bucket - LINEAR) / SUB_BUCKETS + SUB_BITS + 1;
+        int sub = (bucket - LINEAR) % SUB_BUCKETS;
+        int shift = magnitude - SUB_BITS;
+        return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     * @return the count
+     */
+    public long getCount(){
+        return total.get();
+    }
+
+    /**
+     * Returns the largest recorded value.
+     * @return the maximum in nanoseconds
+     */
+    public long getMax(){
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     * @return the mean in nanoseconds, 0 if empty
+     */
+    public double getMean(){
+        long count = total.get();
+        return count == 0 ? 0 : (double) sum.get() / count;
+    }
+
+    /**
+     * Returns the value below which the given fraction of recorded values fall, within the bucket precision.
+     * @param fraction between 0 and 1, e.g. 0.99
+     * @return the percentile in nanoseconds, 0 if empty
+     */
+    public long getPercentile(double fraction){
+        long count = total.get();
+        if (count == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++){
+            seen += counts.get(bucket);
+            if (seen >= rank)
+                return Math.min(highestValue(bucket), max.get());
+        }
+        return max.get();
+    }
+
+    /**
+     * Forgets every recorded value.
+     */
+    public void reset(){
+        for (int bucket = 0; bucket < BUCKETS; bucket++)
+            counts.set(bucket, 0);
+        total.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    @Override
+    public String toString(){
+        return String.format("%s: %d moves | p50 %.1f us | p99 %.1f us | max %.1f us", name, getCount(),
+                getPercentile(0.50) / 1e3, getPercentile(0.99) / 1e3, getMax() / 1e3);
+    }
+}
@@ -0,0 +1,80 @@
+package mainPackage.Model;
+
+import java.util.Arrays;
+
+/**
+ * Default evaluation: every window of K cells in a row that holds tokens of only one player is worth
+ * 4^(tokens in the window, capped at 8) to that player. Windows are precomputed per board shape.
+ * The total is clamped to +-MAX_SCORE, so that large boards can neither overflow nor reach the win scores.
+ */
+public class LineEvaluator implements Evaluator {
+    private static final int[][] DIRECTIONS = { {0, 1}, {1, 0}, {1, 1}, {1, -1} };
+    private static final int MAX_COUNTED = 8;
+    /**
+     * Largest score returned, well below DepthLimitedSearch.WIN.
+     */
+    public static final int MAX_SCORE = DepthLimitedSearch.WIN >> 2;
+
+    /**
+     * The windows of one board shape. Immutable, so it can be swapped in while other threads read the old one.
+     */
+    private static final class Windows {
+        final int size;
+        final int length;
+        final int[][] cells;
+
+        Windows(int size, int length, int[][] cells){
+            this.size = size;
+            this.length = length;
+            this.cells = cells;
+        }
+    }
+
+    private volatile Windows cache;
+
+    @Override
+    public int evaluate(GeneralGame game, int player){
+        // a 100 x 100 board has about 40,000 windows worth up to 4^8 each, more than an int holds
+        long score = 0;
+        for (int[] window : windowsFor(game)){
+            int own = 0, other = 0;
+            for (int cell : window){
+                int token = game.get(cell);
+                if (token == player)
+                    own++;
+                else if (token != 0)
+                    other++;
+            }
+            if (other == 0 && own > 0)
+                score += 1 << (2 * Math.min(own, MAX_COUNTED));
+            else if (own == 0 && other > 0)
+                score -= 1 << (2 * Math.min(other, MAX_COUNTED));
+        }
+        return (int) Math.max(-MAX_SCORE, Math.min(MAX_SCORE, score));
+    }
+
+    // Windows of the last board shape seen; rebuilt if the shape changes
+    private int[][] windowsFor(GeneralGame game){
+        int size = game.getSize(), length = game.getWinLength();
+        Windows windows = cache;
+        if (windows != null && windows.size == size && windows.length == length)
+            return windows.cells;
+        int count = 0;
+        int[][] all = new int[DIRECTIONS.length * size * size][];
+        for (int row = 0; row < size; row++){
+            for (int col = 0; col < size; col++){
+                for (int[] direction : DIRECTIONS){
+                    int endRow = row + direction[0] * (length - 1), endCol = col + direction[1] * (length - 1);
+                    if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size)
+                        continue;
+                    int[] window = new int[length];
+                    for (int i = 0; i < length; i++)
+                        window[i] = (row + direction[0] * i) * size + col + direction[1] * i;
+                    all[count++] = window;
+                }
+            }
+        }
+        cache = new Windows(size, length, Arrays.copyOf(all, count));
+        return cache.cells;
+    }
+}
@@ -0,0 +1,187 @@
+package mainPackage.Model;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.ObjectName;
+
+/**
+ * Counters and move-time histograms for the AI engines.
+ *
+ * Collection is switched on with the system property mainPackage.metrics=true. The flag is a static final constant,
+ * so with metrics off the JIT removes the guarded code and the engines run as if uninstrumented. Engines count in
+ * plain fields while they search and add their totals here once per search, so the hot loops never touch shared
+ * state. When enabled, the counters are also published over JMX as mainPackage:type=Metrics.
+ */
+public final class Metrics {
+    public static final String ENABLED_PROPERTY = "mainPackage.metrics";
+    public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private static final Logger LOG = Logger.getLogger(Metrics.class.getName());
+
+    private static final LongAdder NODES = new LongAdder();
+    private static final LongAdder LEAVES = new LongAdder();
+    private static final LongAdder CACHE_HITS = new LongAdder();
+    private static final LongAdder CUTOFFS = new LongAdder();
+    private static final Map<String, LatencyHistogram> MOVE_TIMES = new ConcurrentHashMap<>();
+
+    static {
+        if (ENABLED)
+            register();
+    }
+
+    private Metrics(){
+    }
+
+    /**
+     * Adds the counts of one search.
+     * @param nodes positions searched
+     * @param leaves positions scored without searching further (game over, evaluation, or playout)
+     * @param cacheHits transposition table hits
+     * @param cutoffs alpha-beta cutoffs
+     */
+    public static void addSearch(long nodes, long leaves, long cacheHits, long cutoffs){
+        NODES.add(nodes);
+        LEAVES.add(leaves);
+        CACHE_HITS.add(cacheHits);
+        CUTOFFS.add(cutoffs);
+    }
+
+    /**
+     * Returns the move-time histogram of an agent, creating it on first use.
+     * @param agent the agent name, e.g. "best"
+     * @return the histogram
+     */
+    public static LatencyHistogram moveTime(String agent){
+        return MOVE_TIMES.computeIfAbsent(agent, LatencyHistogram::new);
+    }
+
+    /**
+     * Starts timing a move.
+     * @return the start time to pass to stop, or 0 if metrics are off
+     */
+    public static long start(){
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since start in a histogram, if metrics are on.
+     * @param histogram where to record
+     * @param start the value returned by start
+     */
+    public static void stop(LatencyHistogram histogram, long start){
+        if (ENABLED)
+            histogram.record(System.nanoTime() - start);
+    }
+
+    public static long getNodes(){
+        return NODES.sum();
+    }
+
+    public static long getLeaves(){
+        return LEAVES.sum();
+    }
+
+    public static long getCacheHits(){
+        return CACHE_HITS.sum();
+    }
+
+    public static long getCutoffs(){
+        return CUTOFFS.sum();
+    }
+
+    /**
+     * Returns a one-line summary of the counters, e.g. for an overlay.
+     * @return the summary
+     */
+    public static String summary(){
+        return String.format("nodes %d | leaves %d | cache hits %d | cutoffs %d", getNodes(), getLeaves(), getCacheHits(), getCutoffs());
+    }
+
+    /**
+     * Clears every counter and histogram.
+     */
+    public static void reset(){
+        NODES.reset();
+        LEAVES.reset();
+        CACHE_HITS.reset();
+        CUTOFFS.reset();
+        MOVE_TIMES.values().forEach(LatencyHistogram::reset);
+    }
+
+    private static <T> Map<String, T> perAgent(Function<LatencyHistogram, T> value){
+        Map<String, T> values = new TreeMap<>();
+        MOVE_TIMES.forEach((agent, histogram) -> values.put(agent, value.apply(histogram)));
+        return values;
+    }
+
+    private static Map<String, Double> perAgentMicros(ToDoubleFunction<LatencyHistogram> nanos){
+        return perAgent(histogram -> nanos.applyAsDouble(histogram) / 1e3);
+    }
+
+    private static void register(){
+        MetricsMXBean bean = new MetricsMXBean() {
+            @Override
+            public boolean isEnabled(){
+                return ENABLED;
+            }
+
+            @Override
+            public long getNodes(){
+                return Metrics.getNodes();
+            }
+
+            @Override
+            public long getLeaves(){
+                return Metrics.getLeaves();
+            }
+
+            @Override
+            public long getCacheHits(){
+                return Metrics.getCacheHits();
+            }
+
+            @Override
+            public long getCutoffs(){
+                return Metrics.getCutoffs();
+            }
+
+            @Override
+            public Map<String, Long> getMoveCounts(){
+                return perAgent(LatencyHistogram::getCount);
+            }
+
+            @Override
+            public Map<String, Double> getMoveTimeP50Micros(){
+                return perAgentMicros(histogram -> histogram.getPercentile(0.50));
+            }
+
+            @Override
+            public Map<String, Double> getMoveTimeP99Micros(){
+                return perAgentMicros(histogram -> histogram.getPercentile(0.99));
+            }
+
+            @Override
+            public Map<String, Double> getMoveTimeMaxMicros(){
+                return perAgentMicros(LatencyHistogram::getMax);
+            }
+
+            @Override
+            public void reset(){
+                Metrics.reset();
+            }
+        };
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(bean, new ObjectName("mainPackage:type=Metrics"));
+        }
+        catch (Exception | LinkageError e){
+            LOG.log(Level.WARNING, "Cannot register the metrics MBean", e);
+        }
+    }
+}
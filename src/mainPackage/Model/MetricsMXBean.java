@@ -0,0 +1,40 @@
+package mainPackage.Model;
+
+import java.util.Map;
+
+/**
+ * JMX view of the search counters and move times collected by Metrics, registered as mainPackage:type=Metrics.
+ */
+public interface MetricsMXBean {
+    public boolean isEnabled();
+
+    public long getNodes();
+
+    public long getLeaves();
+
+    public long getCacheHits();
+
+    public long getCutoffs();
+
+    /**
+     * @return number of timed moves per agent
+     */
+    public Map<String, Long> getMoveCounts();
+
+    /**
+     * @return median move time in microseconds per agent
+     */
+    public Map<String, Double> getMoveTimeP50Micros();
+
+    /**
+     * @return 99th percentile move time in microseconds per agent
+     */
+    public Map<String, Double> getMoveTimeP99Micros();
+
+    /**
+     * @return longest move time in microseconds per agent
+     */
+    public Map<String, Double> getMoveTimeMaxMicros();
+
+    public void reset();
+}
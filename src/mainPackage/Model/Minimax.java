@@ -2,4 +2,15 @@ package mainPackage.Model;
 
 public interface Minimax {
     public int minimax(int[][] board, boolean isMax, int depth);
+
+    public int minimax(int aiMask, int playerMask, boolean isMax, int depth);
+
+    /**
+     * Returns an engine that can search at the same time as this one, e.g. for one root move of a parallel search.
+     * Engines that keep no state between calls can return themselves.
+     * @return an engine for use on another thread
+     */
+    public default Minimax fork(){
+        return this;
+    }
 }
@@ -0,0 +1,273 @@
+package mainPackage.Model;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Monte Carlo Tree Search with UCT selection and uniformly random playouts.
+ *
+ * The tree is a preallocated pool of nodes stored in parallel primitive arrays, so no object is created per node.
+ * Positions are not stored: they are rebuilt from the moves on the path while descending.
+ * Several threads can search the same tree (tree parallelization) without a lock: visit and reward counts are
+ * atomic counters, and a leaf is expanded by the one thread that claims it with a compare-and-set on its child
+ * count, which it publishes once the children are written. A thread adds a virtual loss to every node on its path
+ * so that the other threads explore elsewhere until its result is in.
+ *
+ * The search stops when either the iteration budget or the time budget runs out, so think time can be capped,
+ * or early when the thread that called search is interrupted (e.g. a cancelled AsyncAI request). With one thread
+ * and no time budget, a search is reproducible from its seed.
+ * An instance is not meant to be used by two searches at once.
+ */
+public class MonteCarloTreeSearch {
+    /**
+     * Visits added (without reward) to each node on a path while its playout is in progress.
+     */
+    private static final int VIRTUAL_LOSS = 1;
+    private static final byte ONGOING = 0, WON = 1, DRAWN = 2;
+    /**
+     * Child counts of a node that is not expanded: being expanded by another thread, or left as a leaf because the
+     * pool is full.
+     */
+    private static final int EXPANDING = -1, NO_ROOM = -2;
+
+    // Node pool. Node 0 is the root. Rewards are in half points: 2 for a win, 1 for a draw,
+    // from the point of view of the player who made the move leading to the node.
+    // firstChild, move and outcome of the children are written before childCount publishes them.
+    private final int[] firstChild;
+    private final AtomicIntegerArray childCount;
+    private final byte[] move;
+    private final byte[] outcome;
+    private final AtomicIntegerArray visits;
+    private final AtomicIntegerArray reward;
+    private final AtomicInteger nodeCount = new AtomicInteger();
+
+    private int iterations = 20000;
+    private long timeBudgetNanos = 250_000_000L;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private double exploration = Math.sqrt(2);
+
+    // Per-search state, set before the workers start
+    private int rootMover;
+    private int rootOther;
+    private final AtomicInteger iterationsLeft = new AtomicInteger();
+    private long deadline;
+    private Thread requester;
+
+    /**
+     * Creates a search with a node pool of the given size. Expansion stops when the pool is full.
+     * @param capacity the maximum number of nodes
+     */
+    public MonteCarloTreeSearch(int capacity){
+        firstChild = new int[capacity];
+        childCount = new AtomicIntegerArray(capacity);
+        move = new byte[capacity];
+        outcome = new byte[capacity];
+        visits = new AtomicIntegerArray(capacity);
+        reward = new AtomicIntegerArray(capacity);
+    }
+
+    public MonteCarloTreeSearch(){
+        this(1 << 18);
+    }
+
+    /**
+     * Sets the maximum number of playouts per search.
+     * @param iterations the iteration budget
+     */
+    public void setIterations(int iterations){
+        this.iterations = iterations;
+    }
+
+    /**
+     * Sets the maximum think time per search.
+     * @param millis the time budget in milliseconds, or 0 to stop on the iteration budget only
+     */
+    public void setTimeBudget(long millis){
+        // capped so that the deadline cannot overflow
+        this.timeBudgetNanos = millis <= 0 ? Long.MAX_VALUE / 2
+                : Math.min(TimeUnit.MILLISECONDS.toNanos(millis), Long.MAX_VALUE / 2);
+    }
+
+    /**
+     * Sets the number of threads searching the tree.
+     * @param threads the number of threads (1 searches on the calling thread only)
+     */
+    public void setThreads(int threads){
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Sets the UCT exploration constant (default sqrt(2)).
+     * @param exploration the exploration constant
+     */
+    public void setExploration(double exploration){
+        this.exploration = exploration;
+    }
+
+    /**
+     * Returns the number of playouts of the root after the last search.
+     * @return the root visit count
+     */
+    public int getRootVisits(){
+        return visits.get(0);
+    }
+
+    /**
+     * Searches a position and returns the most visited move.
+     * @param moverMask cells owned by the side to move
+     * @param otherMask cells owned by the other side
+     * @param seed seed for the playouts; each thread gets its own stream
+     * @return the chosen cell index, or -1 if the game is over
+     */
+    public int search(int moverMask, int otherMask, long seed){
+        if (Bitboard.isWin(moverMask) || Bitboard.isWin(otherMask) || Bitboard.empty(moverMask, otherMask) == 0)
+            return -1;
+        rootMover = moverMask;
+        rootOther = otherMask;
+        nodeCount.set(1);
+        resetNode(0, -1);
+        // expanded here, so that there is a move to return even if no iteration runs
+        if (childCount.compareAndSet(0, 0, EXPANDING))
+            expand(0, moverMask, otherMask);
+        iterationsLeft.set(iterations);
+        deadline = System.nanoTime() + timeBudgetNanos;
+        // the workers run on pool threads, which an interrupt of the caller does not reach
+        requester = Thread.currentThread();
+        SplittableRandom random = new SplittableRandom(seed);
+        if (threads == 1)
+            work(random);
+        else {
+            ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[threads];
+            for (int i = 0; i < threads; i++){
+                SplittableRandom stream = random.split();
+                tasks[i] = ForkJoinPool.commonPool().submit(() -> work(stream));
+            }
+            for (ForkJoinTask<?> task : tasks)
+                task.join();
+        }
+        if (Metrics.ENABLED)
+            Metrics.addSearch(nodeCount.get(), iterations - Math.max(0, iterationsLeft.get()), 0, 0);
+        // the first child when none was visited
+        int best = -1;
+        for (int child = firstChild[0]; child < firstChild[0] + childCount.get(0); child++){
+            if (best < 0 || visits.get(child) > visits.get(best))
+                best = child;
+        }
+        // the pool is too small for even the root's children
+        if (best < 0)
+            return Integer.numberOfTrailingZeros(Bitboard.empty(moverMask, otherMask));
+        return move[best];
+    }
+
+    // One worker: select and expand, play out, back up, until a budget runs out
+    private void work(SplittableRandom random){
+        int[] path = new int[Bitboard.CELLS + 1];
+        while (System.nanoTime() - deadline < 0 && !requester.isInterrupted() && iterationsLeft.getAndDecrement() > 0){
+            // Selection, applying a virtual loss along the path
+            int node = 0;
+            int mover = rootMover;
+            int other = rootOther;
+            int length = 0;
+            path[length++] = node;
+            visits.addAndGet(node, VIRTUAL_LOSS);
+            while (outcome[node] == ONGOING){
+                int count = childCount.get(node);
+                if (count <= 0){
+                    // Expansion of a leaf that has been visited before, by the thread that claims it.
+                    // The others play out from it meanwhile (the root is expanded by search).
+                    if (count != 0 || visits.get(node) == VIRTUAL_LOSS || !childCount.compareAndSet(node, 0, EXPANDING)
+                            || !expand(node, mover, other))
+                        break;
+                }
+                node = select(node);
+                int bit = 1 << move[node];
+                int swap = mover | bit;
+                mover = other;
+                other = swap;
+                path[length++] = node;
+                visits.addAndGet(node, VIRTUAL_LOSS);
+            }
+            int leaf = node;
+
+            // Simulation. The result is for the player who moved into the leaf.
+            int result;
+            if (outcome[leaf] == WON)
+                result = 2;
+            else if (outcome[leaf] == DRAWN)
+                result = 1;
+            else
+                result = 1 - RandomPlayouts.playout(mover, other, random);
+
+            // Backpropagation, removing the virtual loss
+            for (int i = length - 1; i >= 0; i--){
+                node = path[i];
+                visits.addAndGet(node, 1 - VIRTUAL_LOSS);
+                reward.addAndGet(node, result);
+                result = 2 - result;
+            }
+        }
+    }
+
+    /**
+     * Adds one child per empty cell to a node this thread has claimed (child count EXPANDING), then publishes them.
+     * Returns false, leaving the node a leaf for good, if the node pool is full.
+     */
+    private boolean expand(int node, int mover, int other){
+        int empty = Bitboard.empty(mover, other);
+        int count = Integer.bitCount(empty);
+        int first;
+        do {
+            first = nodeCount.get();
+            if (first + count > move.length){
+                childCount.set(node, NO_ROOM);
+                return false;
+            }
+        } while (!nodeCount.compareAndSet(first, first + count));
+        for (int child = first; empty != 0; empty &= empty - 1, child++){
+            int cell = Integer.numberOfTrailingZeros(empty);
+            resetNode(child, cell);
+            int after = mover | 1 << cell;
+            if (Bitboard.isWin(after))
+                outcome[child] = WON;
+            else if ((after | other) == Bitboard.FULL)
+                outcome[child] = DRAWN;
+        }
+        firstChild[node] = first;
+        childCount.set(node, count);
+        return true;
+    }
+
+    /**
+     * Returns the child with the highest UCT value. Unvisited children come first.
+     */
+    private int select(int node){
+        double logVisits = Math.log(Math.max(1, visits.get(node)));
+        int best = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        int count = childCount.get(node), first = firstChild[node], end = first + count;
+        for (int child = first; child < end; child++){
+            int childVisits = visits.get(child);
+            if (childVisits == 0)
+                return child;
+            double value = reward.get(child) / (2.0 * childVisits) + exploration * Math.sqrt(logVisits / childVisits);
+            if (value > bestValue){
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private void resetNode(int node, int cell){
+        firstChild[node] = 0;
+        childCount.set(node, 0);
+        move[node] = (byte) cell;
+        outcome[node] = ONGOING;
+        visits.set(node, 0);
+        reward.set(node, 0);
+    }
+}
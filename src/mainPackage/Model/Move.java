@@ -0,0 +1,57 @@
+package mainPackage.Model;
+
+/**
+ * An immutable board position that a move was or will be played at.
+ */
+public final class Move {
+    private final int row;
+    private final int col;
+
+    public Move(int row, int col){
+        this.row = row;
+        this.col = col;
+    }
+
+    /**
+     * Creates a move from a cell index (row * 3 + col).
+     * @param cell the cell index
+     * @return the move
+     */
+    public static Move ofCell(int cell){
+        return new Move(cell / Game.COLS, cell % Game.COLS);
+    }
+
+    public int getRow(){
+        return row;
+    }
+
+    public int getCol(){
+        return col;
+    }
+
+    /**
+     * Returns the cell index of the move (row * 3 + col).
+     * @return the cell index
+     */
+    public int getCell(){
+        return Bitboard.cell(row, col);
+    }
+
+    @Override
+    public boolean equals(Object o){
+        if (!(o instanceof Move))
+            return false;
+        Move other = (Move) o;
+        return row == other.row && col == other.col;
+    }
+
+    @Override
+    public int hashCode(){
+        return getCell();
+    }
+
+    @Override
+    public String toString(){
+        return "[" + row + ", " + col + "]";
+    }
+}
@@ -0,0 +1,202 @@
+package mainPackage.Model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Perfect-play move table covering every reachable position.
+ *
+ * The table is generated by running the full-tree Game.minimax over all reachable states (see main). The core build
+ * runs main to bundle it as the class path resource RESOURCE, and it is memory-mapped (or, inside a jar, read) when
+ * first used.
+ * File layout (big endian): int MAGIC, int VERSION, int entry count, then one short per base-3 index of
+ * (cells of the side to move, cells of the other side):
+ * bits 0 - 8 hold every best move as a cell mask (0 if the position is terminal or unreachable),
+ * bits 9 - 13 hold the minimax score + 10.
+ */
+public final class MoveTable {
+    public static final int MAGIC = 0x5454544D; // "TTTM"
+    public static final int VERSION = 1;
+    /**
+     * System property naming a table file to use instead of the bundled one.
+     */
+    public static final String PATH_PROPERTY = "mainPackage.movetable";
+    public static final String DEFAULT_PATH = "movetable.bin";
+    /**
+     * Name of the bundled table, relative to this class.
+     */
+    public static final String RESOURCE = "movetable.bin";
+
+    private static final Logger LOG = Logger.getLogger(MoveTable.class.getName());
+
+    private static final int HEADER_BYTES = 12;
+    private static final int SCORE_OFFSET = 10;
+
+    private final ByteBuffer table;
+
+    private MoveTable(ByteBuffer table){
+        this.table = table;
+    }
+
+    // Loaded on first access to get()
+    private static final class Holder {
+        static final MoveTable INSTANCE = load();
+    }
+
+    /**
+     * Returns the process-wide table on first call, from the file named by PATH_PROPERTY if set, else from the
+     * bundled resource, and generated in memory if neither is usable.
+     * @return the move table
+     */
+    public static MoveTable get(){
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Returns every best move of a position as a cell mask.
+     * @param moverMask cells owned by the side to move
+     * @param otherMask cells owned by the other side
+     * @return the best moves, or 0 if the game is over
+     */
+    public int bestMoves(int moverMask, int otherMask){
+        return entry(moverMask, otherMask) & Bitboard.FULL;
+    }
+
+    /**
+     * Returns the minimax score of the best move, from the point of view of the side to move.
+     * @param moverMask cells owned by the side to move
+     * @param otherMask cells owned by the other side
+     * @return the score, as returned by Game.minimax
+     */
+    public int score(int moverMask, int otherMask){
+        return (entry(moverMask, otherMask) >>> 9) - SCORE_OFFSET;
+    }
+
+    private int entry(int moverMask, int otherMask){
+        return table.getShort(HEADER_BYTES + 2 * Bitboard.index(moverMask, otherMask)) & 0xFFFF;
+    }
+
+    private static MoveTable load(){
+        String property = System.getProperty(PATH_PROPERTY);
+        if (property != null)
+            return load(Paths.get(property));
+        URL resource = MoveTable.class.getResource(RESOURCE);
+        if (resource != null){
+            try {
+                // a class directory can be mapped; inside a jar the table is read into memory
+                if (resource.getProtocol().equals("file"))
+                    return load(Paths.get(resource.toURI()));
+                try (InputStream in = resource.openStream()){
+                    ByteBuffer buffer = ByteBuffer.allocateDirect(HEADER_BYTES + 2 * Bitboard.INDICES);
+                    buffer.put(in.readNBytes(buffer.capacity() + 1)).flip();
+                    if (isValid(buffer))
+                        return new MoveTable(buffer);
+                    LOG.warning("Invalid bundled table " + resource + ", generating in memory");
+                }
+            }
+            catch (IOException | URISyntaxException | RuntimeException e){
+                LOG.log(Level.WARNING, "Cannot read " + resource + ", generating in memory", e);
+            }
+        }
+        else
+            LOG.warning("No bundled " + RESOURCE + " (run MoveTable to create it), generating in memory");
+        return new MoveTable(generate());
+    }
+
+    /**
+     * Maps the table file read-only. Falls back to generating the table in memory if the file is missing or invalid.
+     * @param path the table file
+     * @return the move table
+     */
+    public static MoveTable load(Path path){
+        if (Files.isReadable(path)){
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (isValid(mapped))
+                    return new MoveTable(mapped);
+                LOG.warning("Invalid table " + path + ", generating in memory");
+            }
+            catch (IOException e){
+                LOG.log(Level.WARNING, "Cannot map " + path + ", generating in memory", e);
+            }
+        }
+        else
+            LOG.warning("Cannot read " + path + ", generating in memory");
+        return new MoveTable(generate());
+    }
+
+    // Checks the size and header of a big-endian table
+    private static boolean isValid(ByteBuffer table){
+        return table.capacity() == HEADER_BYTES + 2 * Bitboard.INDICES && table.limit() == table.capacity()
+                && table.getInt(0) == MAGIC && table.getInt(4) == VERSION && table.getInt(8) == Bitboard.INDICES;
+    }
+
+    /**
+     * Runs minimax on every reachable non-terminal position and builds the table contents.
+     * @return the table, header included
+     */
+    public static ByteBuffer generate(){
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 2 * Bitboard.INDICES).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, Bitboard.INDICES);
+        Game game = new Game();
+        game.newGame(1);
+        fill(buffer, game, 0, 0, new boolean[Bitboard.INDICES]);
+        return buffer;
+    }
+
+    // Depth-first walk over reachable positions; X is always the first side to move
+    private static void fill(ByteBuffer buffer, Game game, int mover, int other, boolean[] visited){
+        int index = Bitboard.index(mover, other);
+        if (visited[index])
+            return;
+        visited[index] = true;
+        // terminal positions keep a zero entry
+        if (game.checkStatus(mover, other, 0) != Game.ONGOING)
+            return;
+        int bestScore = Integer.MIN_VALUE;
+        int bestMoves = 0;
+        for (int empty = Bitboard.empty(mover, other); empty != 0; empty &= empty - 1){
+            int bit = Integer.lowestOneBit(empty);
+            // the side to move plays the role of the AI; Game.minimax searches the full tree, without the pruning and
+            // transposition table of the play engine, so the table is exact by construction
+            int score = game.minimax(mover | bit, other, false, 0);
+            if (score > bestScore){
+                bestScore = score;
+                bestMoves = bit;
+            }
+            else if (score == bestScore)
+                bestMoves |= bit;
+        }
+        buffer.putShort(HEADER_BYTES + 2 * index, (short) (bestMoves | (bestScore + SCORE_OFFSET) << 9));
+        for (int empty = Bitboard.empty(mover, other); empty != 0; empty &= empty - 1)
+            fill(buffer, game, other, mover | Integer.lowestOneBit(empty), visited);
+    }
+
+    /**
+     * Build-time generator, run by the core build to bundle the table. Writes it to the path given as the first
+     * argument (default: movetable.bin), creating missing directories.
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : DEFAULT_PATH);
+        if (path.toAbsolutePath().getParent() != null)
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        long start = System.nanoTime();
+        ByteBuffer buffer = generate();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+        System.out.printf("[MoveTable]: Wrote %s (%d bytes) in %.1f ms%n", path, Files.size(path), (System.nanoTime() - start) / 1e6);
+    }
+}
@@ -0,0 +1,154 @@
+package mainPackage.Model;
+
+/**
+ * Immutable snapshot of a game, packed into a single long so that it can be published atomically.
+ *
+ * Layout: bits 0 - 8 X's cells, bits 9 - 17 O's cells, bits 18 - 19 the current player, bits 20 - 21 the human
+ * player's token, bits 22 - 23 the status (see STATUSES), bits 24 - 27 the move count and bits 28 - 31 the cell of
+ * the last move (15 if none).
+ * Snapshots can be read from any thread without locks or copies; see Game.getPosition.
+ */
+public final class Position {
+    /**
+     * Game statuses in the order of their 2-bit codes.
+     */
+    private static final int[] STATUSES = { Game.ONGOING, Game.DRAW, Game.AI_WIN, Game.PLAYER_WIN };
+    private static final int NO_MOVE = 0xF;
+
+    private final long packed;
+
+    private Position(long packed){
+        this.packed = packed;
+    }
+
+    /**
+     * Packs the state of a game.
+     * @param xMask cells owned by X
+     * @param oMask cells owned by O
+     * @param currentPlayer whose turn it is
+     * @param playerTurn the human player's token
+     * @param status the game status, e.g. Game.ONGOING
+     * @param moveCount number of moves played
+     * @param lastMove cell of the last move, or -1
+     * @return the packed position
+     */
+    static long pack(int xMask, int oMask, int currentPlayer, int playerTurn, int status, int moveCount, int lastMove){
+        int code = 0;
+        while (STATUSES[code] != status)
+            code++;
+        return xMask | (long) oMask << 9 | (long) currentPlayer << 18 | (long) playerTurn << 20 | (long) code << 22
+                | (long) moveCount << 24 | (long) (lastMove < 0 ? NO_MOVE : lastMove) << 28;
+    }
+
+    /**
+     * Wraps a packed position.
+     * @param packed a value returned by pack or toLong
+     * @return the position
+     */
+    public static Position of(long packed){
+        return new Position(packed);
+    }
+
+    /**
+     * Returns the packed form of the position.
+     * @return the packed position
+     */
+    public long toLong(){
+        return packed;
+    }
+
+    /**
+     * Returns the cells owned by a player.
+     * @param player 1 for X, 2 for O
+     * @return the player's cells as a bitboard
+     */
+    public int getMask(int player){
+        return (int) (packed >>> (player == 1 ? 0 : 9)) & Bitboard.FULL;
+    }
+
+    /**
+     * Returns the token on a cell.
+     * @param row target row
+     * @param col target column
+     * @return 0 if empty, 1 for X, 2 for O
+     */
+    public int get(int row, int col){
+        int bit = 1 << Bitboard.cell(row, col);
+        return (getMask(1) & bit) != 0 ? 1 : (getMask(2) & bit) != 0 ? 2 : 0;
+    }
+
+    public int getCurrentPlayer(){
+        return (int) (packed >>> 18) & 3;
+    }
+
+    public int getPlayerTurn(){
+        return (int) (packed >>> 20) & 3;
+    }
+
+    public int getAI_Turn(){
+        return getPlayerTurn() == 1 ? 2 : 1;
+    }
+
+    /**
+     * Returns the game status.
+     * @return Game.ONGOING, Game.DRAW, Game.AI_WIN, or Game.PLAYER_WIN
+     */
+    public int getStatus(){
+        return STATUSES[(int) (packed >>> 22) & 3];
+    }
+
+    public int getMoveCount(){
+        return (int) (packed >>> 24) & 0xF;
+    }
+
+    /**
+     * Returns the last move.
+     * @return the cell index of the last move, or -1 if no move has been played
+     */
+    public int getLastMove(){
+        int cell = (int) (packed >>> 28) & 0xF;
+        return cell == NO_MOVE ? -1 : cell;
+    }
+
+    /**
+     * Returns the winning player regardless of which side is the AI.
+     * @return 1 if X won, 2 if O won, 0 otherwise
+     */
+    public int getWinner(){
+        return Bitboard.isWin(getMask(1)) ? 1 : Bitboard.isWin(getMask(2)) ? 2 : 0;
+    }
+
+    /**
+     * Returns the board as a new 2D array.
+     * @return the board, filled with 0, 1, or 2
+     */
+    public int[][] toBoard(){
+        int[][] board = new int[Game.ROWS][Game.COLS];
+        for (int row = 0; row < Game.ROWS; row++){
+            for (int col = 0; col < Game.COLS; col++)
+                board[row][col] = get(row, col);
+        }
+        return board;
+    }
+
+    @Override
+    public boolean equals(Object o){
+        return o instanceof Position && ((Position) o).packed == packed;
+    }
+
+    @Override
+    public int hashCode(){
+        return Long.hashCode(packed);
+    }
+
+    /**
+     * Returns the board as nine characters in row-major order, e.g. "X.O.X...O".
+     */
+    @Override
+    public String toString(){
+        StringBuilder board = new StringBuilder(Bitboard.CELLS);
+        for (int cell = 0; cell < Bitboard.CELLS; cell++)
+            board.append(".XO".charAt(get(cell / Game.COLS, cell % Game.COLS)));
+        return board.toString();
+    }
+}
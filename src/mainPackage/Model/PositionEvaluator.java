@@ -0,0 +1,174 @@
+package mainPackage.Model;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Pure, thread-safe evaluation of many positions at once, for analysing game logs offline.
+ *
+ * A position is packed into one int: the X cells in bits 0 - 8 and the O cells in bits 9 - 17 (see pack).
+ * The side to move is X if both sides have the same number of tokens, otherwise O.
+ * Positions that are rotations or reflections of each other are searched only once per batch, and the distinct
+ * positions are searched in parallel, each worker thread with its own alpha-beta engine.
+ *
+ * A result packs like a MoveTable entry: bits 0 - 8 hold every best move as a cell mask (0 if the game is over),
+ * bits 9 - 13 the minimax score + 10 from the point of view of the side to move. The lowest best move is the one
+ * AI_bestMove plays.
+ */
+public final class PositionEvaluator {
+    /**
+     * Result of a position that cannot occur in a game (overlapping cells, wrong token counts, or play after a win).
+     */
+    public static final int INVALID = -1;
+
+    private static final int SCORE_OFFSET = 10;
+
+    /**
+     * One minimax engine per worker thread, since engines keep per-search state.
+     */
+    private static final ThreadLocal<Minimax> ENGINES = ThreadLocal.withInitial(() -> {
+        Game game = new Game();
+        game.newGame(1);
+        return game.getEngine();
+    });
+
+    private PositionEvaluator(){
+    }
+
+    /**
+     * Packs a position.
+     * @param xMask cells owned by X
+     * @param oMask cells owned by O
+     * @return the packed position
+     */
+    public static int pack(int xMask, int oMask){
+        return xMask | oMask << Bitboard.CELLS;
+    }
+
+    /**
+     * Packs a 2D board as returned by Game.getBoard.
+     * @param board board filled with 0, 1 (X), or 2 (O)
+     * @return the packed position
+     */
+    public static int pack(int[][] board){
+        return pack(Bitboard.toMask(board, 1), Bitboard.toMask(board, 2));
+    }
+
+    /**
+     * Evaluates a batch of positions.
+     * @param positions packed positions
+     * @return one result per position, in the same order (INVALID for impossible positions)
+     */
+    public static int[] evaluate(int[] positions){
+        int count = positions.length;
+        int[] results = new int[count];
+        int[] symmetries = new int[count];
+        int[] uniqueOf = new int[count];
+        // canonical index -> slot in the list of distinct positions
+        int[] slots = new int[Bitboard.INDICES];
+        Arrays.fill(slots, -1);
+        int[] movers = new int[count], others = new int[count];
+        int unique = 0;
+
+        for (int i = 0; i < count; i++){
+            int x = positions[i] & Bitboard.FULL, o = positions[i] >>> Bitboard.CELLS;
+            if (!isValid(x, o)){
+                results[i] = INVALID;
+                uniqueOf[i] = -1;
+                continue;
+            }
+            int mover = Integer.bitCount(x) == Integer.bitCount(o) ? x : o;
+            int other = mover == x ? o : x;
+            int sym = Bitboard.canonicalSymmetry(mover, other);
+            int canonicalMover = Bitboard.transform(sym, mover), canonicalOther = Bitboard.transform(sym, other);
+            int index = Bitboard.index(canonicalMover, canonicalOther);
+            if (slots[index] < 0){
+                slots[index] = unique;
+                movers[unique] = canonicalMover;
+                others[unique] = canonicalOther;
+                unique++;
+            }
+            symmetries[i] = sym;
+            uniqueOf[i] = slots[index];
+        }
+
+        // score every move of each distinct position, cell by cell in the canonical orientation
+        int[] moveScores = new int[unique * Bitboard.CELLS];
+        IntStream.range(0, unique).parallel().forEach(u -> scoreMoves(movers[u], others[u], moveScores, u * Bitboard.CELLS));
+
+        for (int i = 0; i < count; i++){
+            if (uniqueOf[i] >= 0)
+                results[i] = select(positions[i], symmetries[i], moveScores, uniqueOf[i] * Bitboard.CELLS);
+        }
+        return results;
+    }
+
+    /**
+     * Returns every best move of a result as a cell mask.
+     * @param result an evaluation result
+     * @return the best moves, or 0 if the game is over or the position invalid
+     */
+    public static int bestMoves(int result){
+        return result == INVALID ? 0 : result & Bitboard.FULL;
+    }
+
+    /**
+     * Returns the move AI_bestMove would play: the first best move in row-major order.
+     * @param result an evaluation result
+     * @return the cell index, or -1 if there is none
+     */
+    public static int bestMove(int result){
+        int moves = bestMoves(result);
+        return moves == 0 ? -1 : Integer.numberOfTrailingZeros(moves);
+    }
+
+    /**
+     * Returns the minimax score of a result, from the point of view of the side to move.
+     * @param result a valid evaluation result
+     * @return the score, as returned by Game.minimax
+     */
+    public static int score(int result){
+        return (result >>> 9) - SCORE_OFFSET;
+    }
+
+    private static boolean isValid(int x, int o){
+        int xCount = Integer.bitCount(x), oCount = Integer.bitCount(o);
+        if ((x & o) != 0 || (x | o) > Bitboard.FULL || xCount - oCount < 0 || xCount - oCount > 1)
+            return false;
+        // the side that moved last is the only one that can have won
+        return xCount == oCount ? !Bitboard.isWin(x) : !Bitboard.isWin(o);
+    }
+
+    // Scores each move of one position; occupied cells and terminal positions are marked with MIN_VALUE
+    private static void scoreMoves(int mover, int other, int[] moveScores, int offset){
+        Arrays.fill(moveScores, offset, offset + Bitboard.CELLS, Integer.MIN_VALUE);
+        if (Bitboard.isWin(other))
+            return;
+        Minimax engine = ENGINES.get();
+        for (int empty = Bitboard.empty(mover, other); empty != 0; empty &= empty - 1){
+            int cell = Integer.numberOfTrailingZeros(empty);
+            // the side to move plays the role of the AI
+            moveScores[offset + cell] = engine.minimax(mover | 1 << cell, other, false, 0);
+        }
+    }
+
+    // Maps the canonical move scores back to the position's own orientation and picks the best moves
+    private static int select(int position, int sym, int[] moveScores, int offset){
+        int x = position & Bitboard.FULL, o = position >>> Bitboard.CELLS;
+        int bestScore = Integer.MIN_VALUE, bestMoves = 0;
+        for (int empty = Bitboard.empty(x, o); empty != 0; empty &= empty - 1){
+            int bit = Integer.lowestOneBit(empty);
+            int score = moveScores[offset + Integer.numberOfTrailingZeros(Bitboard.transform(sym, bit))];
+            if (score > bestScore){
+                bestScore = score;
+                bestMoves = bit;
+            }
+            else if (score == bestScore)
+                bestMoves |= bit;
+        }
+        // game over: the previous mover won (mover lost at depth 0) or the board is full
+        if (bestMoves == 0 || bestScore == Integer.MIN_VALUE)
+            return (Bitboard.isWin(x) || Bitboard.isWin(o) ? Game.PLAYER_WIN : Game.DRAW) + SCORE_OFFSET << 9;
+        return bestMoves | (bestScore + SCORE_OFFSET) << 9;
+    }
+}
@@ -0,0 +1,56 @@
+package mainPackage.Model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Uniformly random playouts on bitboards, the inner loop of Monte Carlo search.
+ * A playout only touches two ints and the caller's SplittableRandom, so it neither allocates nor shares state.
+ */
+public final class RandomPlayouts {
+    public static final int WIN = 1;
+    public static final int DRAW = 0;
+    public static final int LOSS = -1;
+
+    private RandomPlayouts(){
+    }
+
+    /**
+     * Plays one game to the end with both sides choosing uniformly among the empty cells.
+     * The position must not be over already.
+     * @param moverMask cells owned by the side to move
+     * @param otherMask cells owned by the other side
+     * @param random source of randomness
+     * @return WIN, DRAW, or LOSS for the side to move
+     */
+    public static int playout(int moverMask, int otherMask, SplittableRandom random){
+        int empty = Bitboard.empty(moverMask, otherMask);
+        // +1 while the original mover is to move, -1 otherwise
+        int sign = 1;
+        while (empty != 0){
+            int bit = 1 << Bitboard.nthCell(empty, random.nextInt(Integer.bitCount(empty)));
+            empty &= ~bit;
+            moverMask |= bit;
+            if (Bitboard.isWin(moverMask))
+                return sign;
+            // the other side moves next
+            int swap = moverMask;
+            moverMask = otherMask;
+            otherMask = swap;
+            sign = -sign;
+        }
+        return DRAW;
+    }
+
+    /**
+     * Plays a batch of playouts from one position.
+     * @param moverMask cells owned by the side to move
+     * @param otherMask cells owned by the other side
+     * @param count number of playouts
+     * @param random source of randomness
+     * @param results receives the counts, added as {wins, draws, losses} for the side to move
+     */
+    public static void run(int moverMask, int otherMask, int count, SplittableRandom random, int[] results){
+        for (int i = 0; i < count; i++)
+            results[1 - playout(moverMask, otherMask, random)]++;
+    }
+}
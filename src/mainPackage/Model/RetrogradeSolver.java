@@ -0,0 +1,335 @@
+package mainPackage.Model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Retrograde (bottom-up) solver for N x N, K in a row boards small enough to enumerate (N at most 4).
+ *
+ * Every position is identified by its base-3 index: the sum of token * 3^cell, X being 1 and O being 2.
+ * The solver labels each position that can occur in play in one pass, then solves the positions layer by layer from
+ * the full board down to the empty one: a move always adds a token, so a position's moves all lead into the layer
+ * above, which is already solved. Each pass runs in parallel over ranges of indices.
+ *
+ * The result is one byte per index: bits 6 - 7 hold the outcome for the side to move (LOSS, DRAW, WIN, or 0 for a
+ * position that cannot occur) and bits 0 - 5 the number of plies to the end of the game with perfect play
+ * (winning as fast and losing as slowly as possible).
+ *
+ * A position can occur in play if X has as many tokens as O or one more, the side to move has no K in a row,
+ * and, if the other side has, one of its tokens lies on all of its lines: the move that won the game.
+ * Without a line, any placing order reaches the position, since no subset of the tokens holds a line either.
+ */
+public class RetrogradeSolver {
+    public static final int MAGIC = 0x54545444; // "TTTD"
+    public static final int VERSION = 1;
+
+    public static final int ILLEGAL = 0;
+    public static final int LOSS = 1;
+    public static final int DRAW = 2;
+    public static final int WIN = 3;
+
+    private static final int HEADER_BYTES = 16;
+    private static final int OUTCOME_SHIFT = 6;
+    private static final int DISTANCE_MASK = (1 << OUTCOME_SHIFT) - 1;
+    /**
+     * Indices handled by one parallel task.
+     */
+    private static final int CHUNK = 1 << 14;
+
+    private final int size;
+    private final int winLength;
+    private final int cellCount;
+    private final int[] powers;
+    /**
+     * Every K-in-a-row line as a mask of cells.
+     */
+    private final int[] lines;
+    /**
+     * Solved values; while solving, an unsolved legal position holds outcome 0 and its layer (token count) + 1.
+     */
+    private final byte[] values;
+
+    /**
+     * @param size number of rows and columns (N), at most 4
+     * @param winLength number in a row needed to win (K)
+     */
+    public RetrogradeSolver(int size, int winLength){
+        if (size < 1 || size > 4 || winLength < 1 || winLength > size)
+            throw new IllegalArgumentException("[RetrogradeSolver]: Invalid size " + size + " / win length " + winLength);
+        this.size = size;
+        this.winLength = winLength;
+        cellCount = size * size;
+        powers = new int[cellCount + 1];
+        powers[0] = 1;
+        for (int cell = 0; cell < cellCount; cell++)
+            powers[cell + 1] = powers[cell] * 3;
+        lines = lines(size, winLength);
+        values = new byte[powers[cellCount]];
+    }
+
+    private static int[] lines(int size, int winLength){
+        List<Integer> lines = new ArrayList<>();
+        int[][] directions = { {0, 1}, {1, 0}, {1, 1}, {1, -1} };
+        for (int row = 0; row < size; row++){
+            for (int col = 0; col < size; col++){
+                for (int[] direction : directions){
+                    int endRow = row + direction[0] * (winLength - 1), endCol = col + direction[1] * (winLength - 1);
+                    if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size)
+                        continue;
+                    int line = 0;
+                    for (int i = 0; i < winLength; i++)
+                        line |= 1 << ((row + direction[0] * i) * size + col + direction[1] * i);
+                    lines.add(line);
+                }
+            }
+        }
+        return lines.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Solves every position.
+     * @param threads number of worker threads
+     * @return this solver
+     */
+    public RetrogradeSolver solve(int threads){
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> forEachChunk(this::label)).join();
+            for (int layer = cellCount - 1; layer >= 0; layer--){
+                int pending = layer + 1;
+                pool.submit(() -> forEachChunk((from, to) -> solveLayer(from, to, pending))).join();
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+        return this;
+    }
+
+    private interface Range {
+        void run(int from, int to);
+    }
+
+    private void forEachChunk(Range range){
+        int chunks = (values.length + CHUNK - 1) / CHUNK;
+        IntStream.range(0, chunks).parallel()
+                .forEach(chunk -> range.run(chunk * CHUNK, Math.min(values.length, (chunk + 1) * CHUNK)));
+    }
+
+    // First pass: values of terminal positions, layer markers of the others, ILLEGAL for impossible ones
+    private void label(int from, int to){
+        for (int index = from; index < to; index++){
+            int x = 0, o = 0;
+            for (int cell = 0, rest = index; cell < cellCount; cell++, rest /= 3){
+                int digit = rest % 3;
+                if (digit == 1)
+                    x |= 1 << cell;
+                else if (digit == 2)
+                    o |= 1 << cell;
+            }
+            int xCount = Integer.bitCount(x), oCount = Integer.bitCount(o);
+            boolean xToMove = xCount == oCount;
+            int last = xToMove ? o : x;
+            if (xCount - oCount < 0 || xCount - oCount > 1 || isWin(xToMove ? x : o))
+                values[index] = ILLEGAL;
+            else if (isWin(last))
+                values[index] = winningMoves(last) != 0 ? encode(LOSS, 0) : ILLEGAL;
+            else if (xCount + oCount == cellCount)
+                values[index] = encode(DRAW, 0);
+            else
+                values[index] = (byte) (xCount + oCount + 1);
+        }
+    }
+
+    // Negamax over the solved layer above: win if a move leaves the opponent lost, else draw if one draws
+    private void solveLayer(int from, int to, int pending){
+        for (int index = from; index < to; index++){
+            if (values[index] != pending)
+                continue;
+            int mover = (pending - 1) % 2 == 0 ? 1 : 2;
+            int fastestWin = Integer.MAX_VALUE, draw = -1, slowestLoss = -1;
+            for (int cell = 0, rest = index; cell < cellCount; cell++, rest /= 3){
+                if (rest % 3 != 0)
+                    continue;
+                int child = values[index + mover * powers[cell]];
+                int distance = child & DISTANCE_MASK;
+                switch ((child & 0xFF) >>> OUTCOME_SHIFT){
+                    case LOSS:
+                        fastestWin = Math.min(fastestWin, distance);
+                        break;
+                    case DRAW:
+                        draw = Math.max(draw, distance);
+                        break;
+                    case WIN:
+                        slowestLoss = Math.max(slowestLoss, distance);
+                        break;
+                }
+            }
+            if (fastestWin != Integer.MAX_VALUE)
+                values[index] = encode(WIN, fastestWin + 1);
+            else if (draw >= 0)
+                values[index] = encode(DRAW, draw + 1);
+            else
+                values[index] = encode(LOSS, slowestLoss + 1);
+        }
+    }
+
+    /**
+     * Returns the cells on every line of the mask, one of which must have been the winning move.
+     */
+    private int winningMoves(int mask){
+        int common = -1;
+        for (int line : lines){
+            if ((mask & line) == line)
+                common &= line;
+        }
+        return common;
+    }
+
+    private boolean isWin(int mask){
+        for (int line : lines){
+            if ((mask & line) == line)
+                return true;
+        }
+        return false;
+    }
+
+    private static byte encode(int outcome, int distance){
+        return (byte) (outcome << OUTCOME_SHIFT | distance);
+    }
+
+    /**
+     * Returns the base-3 index of a position.
+     * @param game the position
+     * @return the index
+     */
+    public int index(GeneralGame game){
+        int index = 0;
+        for (int cell = 0; cell < cellCount; cell++)
+            index += game.get(cell) * powers[cell];
+        return index;
+    }
+
+    /**
+     * Returns the outcome of a position for the side to move.
+     * @param index base-3 index of the position
+     * @return WIN, DRAW, LOSS, or ILLEGAL
+     */
+    public int outcome(int index){
+        return (values[index] & 0xFF) >>> OUTCOME_SHIFT;
+    }
+
+    /**
+     * Returns the number of plies to the end of the game with perfect play.
+     * @param index base-3 index of the position
+     * @return the distance, 0 if the game is over
+     */
+    public int distance(int index){
+        return values[index] & DISTANCE_MASK;
+    }
+
+    /**
+     * Returns a perfect move: the first cell (in index order) whose position has the best outcome and distance.
+     * @param index base-3 index of a legal position
+     * @return the cell index, or -1 if the game is over
+     */
+    public int bestMove(int index){
+        if (distance(index) == 0)
+            return -1;
+        int target = values[index];
+        int tokens = 0;
+        for (int cell = 0, rest = index; cell < cellCount; cell++, rest /= 3)
+            tokens += rest % 3 != 0 ? 1 : 0;
+        int mover = tokens % 2 == 0 ? 1 : 2;
+        for (int cell = 0, rest = index; cell < cellCount; cell++, rest /= 3){
+            if (rest % 3 != 0)
+                continue;
+            int child = index + mover * powers[cell];
+            int outcome = WIN + LOSS - outcome(child);
+            if (encode(outcome, distance(child) + 1) == target)
+                return cell;
+        }
+        return -1;
+    }
+
+    public int getSize(){
+        return size;
+    }
+
+    public int getWinLength(){
+        return winLength;
+    }
+
+    /**
+     * Returns the solved database: one value byte per base-3 index.
+     * @return the values (not copied)
+     */
+    public byte[] getValues(){
+        return values;
+    }
+
+    /**
+     * Writes the database: int MAGIC, int VERSION, int N, int K, then the value bytes.
+     * @param path the database file
+     */
+    public void save(Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putInt(size).putInt(winLength);
+        header.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            while (header.hasRemaining())
+                channel.write(header);
+            ByteBuffer body = ByteBuffer.wrap(values);
+            while (body.hasRemaining())
+                channel.write(body);
+        }
+    }
+
+    /**
+     * Reads a database written by save.
+     * @param path the database file
+     * @return the solved database
+     */
+    public static RetrogradeSolver load(Path path) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (data.capacity() < HEADER_BYTES || data.getInt() != MAGIC || data.getInt() != VERSION)
+            throw new IOException("[RetrogradeSolver]: Invalid database " + path);
+        int size = data.getInt(), winLength = data.getInt();
+        RetrogradeSolver solver = new RetrogradeSolver(size, winLength);
+        if (data.remaining() != solver.values.length)
+            throw new IOException("[RetrogradeSolver]: Truncated database " + path);
+        data.get(solver.values);
+        return solver;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int winLength = args.length > 1 ? Integer.parseInt(args[1]) : size;
+        Path path = Paths.get(args.length > 2 ? args[2] : String.format("solved-%dx%d-%d.bin", size, size, winLength));
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        RetrogradeSolver solver = new RetrogradeSolver(size, winLength).solve(threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long[] counts = new long[4];
+        for (int index = 0; index < solver.values.length; index++)
+            counts[solver.outcome(index)]++;
+        solver.save(path);
+
+        String[] names = { "illegal", "loss", "draw", "win" };
+        System.out.printf("[RetrogradeSolver]: %dx%d, %d in a row: solved %d indices in %.2f s (%d threads)%n",
+                size, size, winLength, solver.values.length, seconds, threads);
+        System.out.printf("[RetrogradeSolver]: %d wins | %d draws | %d losses | %d illegal%n",
+                counts[WIN], counts[DRAW], counts[LOSS], counts[ILLEGAL]);
+        System.out.printf("[RetrogradeSolver]: Empty board: %s in %d plies. Wrote %s%n",
+                names[solver.outcome(0)], solver.distance(0), path);
+    }
+}
@@ -0,0 +1,175 @@
+package mainPackage.Model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Headless self-play tournament between two AI behaviors.
+ * Games run in parallel on a fork-join pool. Each game owns its Game instance and a seed derived from the
+ * tournament seed, so a run is reproducible regardless of the number of threads, as long as the agents are
+ * deterministic. main enters every agent through Agent.deterministic: mcts then searches on one thread up to its
+ * iteration budget instead of for 250 ms, so its moves do not depend on the machine's speed (and take longer).
+ *
+ * Usage: Tournament agentA agentB [games] [seed] [threads] [record directory]
+ * Any registered Agent can enter, by name. With a record directory, every game is appended to it as a GameRecord,
+ * agents identified by their position in Agents.all().
+ */
+public class Tournament {
+
+    /**
+     * Outcome of one game and the time each agent spent per move.
+     */
+    private static final class Result {
+        // 1 if agent A won, -1 if agent B won, 0 if drawn
+        int outcome;
+        long[][] latencies = new long[2][Bitboard.CELLS];
+        int[] moves = new int[2];
+    }
+
+    private final Consumer<Game> agentA;
+    private final Consumer<Game> agentB;
+    private GameRecordWriter recorder;
+    private int recordIdA;
+    private int recordIdB;
+
+    public Tournament(Consumer<Game> agentA, Consumer<Game> agentB){
+        this.agentA = agentA;
+        this.agentB = agentB;
+    }
+
+    /**
+     * Records every following game.
+     * @param recorder where the games are appended
+     * @param idA agent id of agent A in the records
+     * @param idB agent id of agent B in the records
+     */
+    public void setRecorder(GameRecordWriter recorder, int idA, int idB){
+        this.recorder = recorder;
+        this.recordIdA = idA;
+        this.recordIdB = idB;
+    }
+
+    /**
+     * Plays one game. Agent A plays X in even-numbered games and O in odd-numbered games.
+     * @param number the game number
+     * @param seed seed of this game
+     * @return the result
+     */
+    private Result play(int number, long seed){
+        Result result = new Result();
+        Game game = new Game(seed);
+        // the AI behaviors play as AI_Turn, which starts as X
+        game.newGame(2);
+        int sideA = number % 2 == 0 ? 1 : 2;
+        while (game.getStatus() == Game.ONGOING){
+            if (game.getCurrentPlayer() != game.getAI_Turn())
+                game.swapSides();
+            int agent = game.getCurrentPlayer() == sideA ? 0 : 1;
+            long start = System.nanoTime();
+            (agent == 0 ? agentA : agentB).accept(game);
+            result.latencies[agent][result.moves[agent]++] = System.nanoTime() - start;
+        }
+        int winner = game.getWinner();
+        result.outcome = winner == 0 ? 0 : winner == sideA ? 1 : -1;
+        if (recorder != null){
+            try {
+                recorder.append(GameRecord.of(game, sideA == 1 ? recordIdA : recordIdB, sideA == 1 ? recordIdB : recordIdA, -1, seed));
+            }
+            catch (IOException e){
+                throw new UncheckedIOException(e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Plays the given number of games and prints the results.
+     * @param games number of games
+     * @param seed tournament seed
+     * @param threads number of worker threads
+     */
+    public void run(int games, long seed, int threads) throws Exception {
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Result[] results;
+        try {
+            results = pool.submit(() -> IntStream.range(0, games).parallel()
+                    .mapToObj(i -> play(i, seed + i * 0x9E3779B97F4A7C15L))
+                    .toArray(Result[]::new)).get();
+        }
+        finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int wins = 0, draws = 0, losses = 0;
+        for (Result result : results){
+            if (result.outcome > 0)
+                wins++;
+            else if (result.outcome < 0)
+                losses++;
+            else
+                draws++;
+        }
+        System.out.printf("Games: %d in %.2f s (%.0f games/s, %d threads)%n", games, seconds, games / seconds, threads);
+        System.out.printf("Agent A: %.1f%% wins | %.1f%% draws | %.1f%% losses%n",
+                100.0 * wins / games, 100.0 * draws / games, 100.0 * losses / games);
+        printLatencies("Agent A", results, 0);
+        printLatencies("Agent B", results, 1);
+        if (Metrics.ENABLED)
+            System.out.println("Search: " + Metrics.summary());
+    }
+
+    private static void printLatencies(String label, Result[] results, int agent){
+        int count = 0;
+        for (Result result : results)
+            count += result.moves[agent];
+        long[] all = new long[count];
+        int next = 0;
+        for (Result result : results){
+            System.arraycopy(result.latencies[agent], 0, all, next, result.moves[agent]);
+            next += result.moves[agent];
+        }
+        if (count == 0)
+            return;
+        Arrays.sort(all);
+        System.out.printf("%s move latency (us): p50 %.1f | p90 %.1f | p99 %.1f | max %.1f%n", label,
+                percentile(all, 0.50) / 1e3, percentile(all, 0.90) / 1e3, percentile(all, 0.99) / 1e3, all[count - 1] / 1e3);
+    }
+
+    private static long percentile(long[] sorted, double p){
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+
+    public static void main(String[] args) throws Exception {
+        Agent agentA = args.length < 2 ? null : Agents.get(args[0]);
+        Agent agentB = args.length < 2 ? null : Agents.get(args[1]);
+        if (agentA == null || agentB == null){
+            System.out.println("Usage: Tournament agentA agentB [games] [seed] [threads] [record directory]");
+            System.out.println("Agents:");
+            for (Agent agent : Agents.all())
+                System.out.printf("  %-8s %-6s %7s  %s%n", agent.getName(), agent.getCost(),
+                        agent.getThinkBudgetMillis() > 0 ? agent.getThinkBudgetMillis() + " ms" : "-", agent.getLabel());
+            return;
+        }
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        System.out.printf("%s vs %s, seed %d%n", args[0], args[1], seed);
+        Tournament tournament = new Tournament(agentA.deterministic(), agentB.deterministic());
+        if (args.length > 5){
+            try (GameRecordWriter recorder = new GameRecordWriter(Paths.get(args[5]))){
+                tournament.setRecorder(recorder, Agents.all().indexOf(agentA), Agents.all().indexOf(agentB));
+                tournament.run(games, seed, threads);
+                System.out.printf("Recorded %d games in %s%n", recorder.getRecords(), args[5]);
+            }
+        }
+        else
+            tournament.run(games, seed, threads);
+    }
+}
@@ -0,0 +1,139 @@
+package mainPackage.Model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size transposition table for the minimax search.
+ * Positions are keyed by their canonical base-3 index (see Bitboard.canonicalIndex) plus the side to move,
+ * so all eight symmetric versions of a position share one entry.
+ *
+ * Each entry is packed into one long:
+ * bits 0 - 7 score (signed, relative to the stored position), bits 8 - 9 bound type,
+ * bits 10 - 13 draft (empty cells left), bits 14 - 30 key + 1 (0 marks an empty slot).
+ *
+ * The table is safe to share between threads: entries are read and written whole (opaque access),
+ * and since every entry carries its own key, a lost race only costs a cache miss.
+ */
+public class TranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER = 1;
+    public static final int UPPER = 2;
+
+    /**
+     * Returned by probe when no usable entry exists.
+     */
+    public static final int MISS = Integer.MIN_VALUE;
+
+    /**
+     * Table shared by every search engine in the process.
+     */
+    private static final TranspositionTable SHARED = new TranspositionTable(1 << 14);
+
+    private final AtomicLongArray entries;
+    private final int shift;
+
+    /**
+     * Creates an empty table.
+     * @param size number of entries, rounded up to a power of two (at least 2)
+     */
+    public TranspositionTable(int size){
+        int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        entries = new AtomicLongArray(capacity);
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+    }
+
+    /**
+     * Returns the table shared across calls to AI_bestMove within this process.
+     * @return the shared table
+     */
+    public static TranspositionTable shared(){
+        return SHARED;
+    }
+
+    /**
+     * Builds the key of a position.
+     * @param aiMask cells owned by the AI
+     * @param playerMask cells owned by the human player
+     * @param isMax true if it is the AI's turn
+     * @return the key
+     */
+    public static int key(int aiMask, int playerMask, boolean isMax){
+        return Bitboard.canonicalIndex(aiMask, playerMask) << 1 | (isMax ? 1 : 0);
+    }
+
+    /**
+     * Looks up a position and applies the stored score to the search window.
+     * @param key key of the position
+     * @param draft number of plies the caller still needs searched
+     * @param depth depth of the position in the current search, used to convert the stored score back
+     * @param alpha lower end of the search window
+     * @param beta upper end of the search window
+     * @return the score if the entry settles the position, otherwise MISS
+     */
+    public int probe(int key, int draft, int depth, int alpha, int beta){
+        long entry = entries.getOpaque(slot(key));
+        if ((int) (entry >>> 14) != key + 1 || (int) (entry >>> 10 & 0xF) < draft)
+            return MISS;
+        int score = fromStored((byte) entry, depth);
+        switch ((int) (entry >>> 8 & 0x3)){
+            case EXACT:
+                return score;
+            case LOWER:
+                return score >= beta ? score : MISS;
+            case UPPER:
+                return score <= alpha ? score : MISS;
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores a search result. An existing entry for a different position is only replaced by an equal or deeper draft.
+     * @param key key of the position
+     * @param draft number of plies searched below the position
+     * @param depth depth of the position in the current search
+     * @param score the score returned by the search
+     * @param bound EXACT, LOWER, or UPPER
+     */
+    public void store(int key, int draft, int depth, int score, int bound){
+        int stored = toStored(score, depth);
+        if (stored < Byte.MIN_VALUE || stored > Byte.MAX_VALUE)
+            return;
+        int slot = slot(key);
+        long old = entries.getOpaque(slot);
+        if (old != 0 && (int) (old >>> 14) != key + 1 && (int) (old >>> 10 & 0xF) > draft)
+            return;
+        entries.setOpaque(slot, (long) (key + 1) << 14 | (long) draft << 10 | (long) bound << 8 | (stored & 0xFF));
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear(){
+        for (int slot = 0; slot < entries.length(); slot++)
+            entries.setOpaque(slot, 0);
+    }
+
+    private int slot(int key){
+        // Fibonacci hashing spreads the dense base-3 keys over the table
+        return key * 0x9E3779B9 >>> shift;
+    }
+
+    /**
+     * Win and loss scores include the depth at which the game ended, so they are stored relative to the position.
+     */
+    private static int toStored(int score, int depth){
+        if (score > 0)
+            return score + depth;
+        if (score < 0)
+            return score - depth;
+        return score;
+    }
+
+    private static int fromStored(int stored, int depth){
+        if (stored > 0)
+            return stored - depth;
+        if (stored < 0)
+            return stored + depth;
+        return stored;
+    }
+}
@@ -0,0 +1,170 @@
+package mainPackage.Model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Read-only learned value function, as trained by ValueTrainer, used by Game.AI_learnedMove.
+ *
+ * The core build runs ValueTrainer with a fixed seed to bundle a model as the class path resource RESOURCE, which is
+ * memory-mapped (or, inside a jar, read) when first used.
+ * File layout (big endian): int MAGIC, int VERSION, int entry count, then one unsigned short per canonical
+ * base-3 index holding the afterstate value scaled to 0 - 65535. The file is memory-mapped, so a move is one
+ * lookup per empty cell.
+ */
+public final class ValueModel {
+    public static final int MAGIC = 0x54545456; // "TTTV"
+    public static final int VERSION = 1;
+    /**
+     * System property naming a model file to use instead of the bundled one.
+     */
+    public static final String PATH_PROPERTY = "mainPackage.valuemodel";
+    public static final String DEFAULT_PATH = "valuemodel.bin";
+    /**
+     * Name of the bundled model, relative to this class.
+     */
+    public static final String RESOURCE = "valuemodel.bin";
+    /**
+     * Episodes trained in memory when no model can be loaded.
+     */
+    public static final int FALLBACK_EPISODES = 1_000_000;
+
+    private static final Logger LOG = Logger.getLogger(ValueModel.class.getName());
+
+    static final int HEADER_BYTES = 12;
+    static final int SCALE = 0xFFFF;
+
+    private final ByteBuffer model;
+
+    private ValueModel(ByteBuffer model){
+        this.model = model;
+    }
+
+    // Loaded on first access to get()
+    private static final class Holder {
+        static final ValueModel INSTANCE = load();
+    }
+
+    /**
+     * Returns the process-wide model on first call, from the file named by PATH_PROPERTY if set, else from the
+     * bundled resource, and trained in memory if neither is usable.
+     * @return the value model
+     */
+    public static ValueModel get(){
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Returns the learned value of the position after the mover plays a cell.
+     * @param moverMask cells owned by the side to move
+     * @param otherMask cells owned by the other side
+     * @param cell an empty cell
+     * @return the expected result for the mover, between 0 and 1
+     */
+    public float value(int moverMask, int otherMask, int cell){
+        int index = Bitboard.canonicalIndex(moverMask | 1 << cell, otherMask);
+        return (model.getShort(HEADER_BYTES + 2 * index) & 0xFFFF) / (float) SCALE;
+    }
+
+    /**
+     * Returns the empty cell with the highest learned value (the lowest cell on ties).
+     * @param moverMask cells owned by the side to move
+     * @param otherMask cells owned by the other side
+     * @return the cell index, or -1 if the board is full
+     */
+    public int bestMove(int moverMask, int otherMask){
+        int best = -1;
+        float bestValue = -1;
+        for (int empty = Bitboard.empty(moverMask, otherMask); empty != 0; empty &= empty - 1){
+            int cell = Integer.numberOfTrailingZeros(empty);
+            float value = value(moverMask, otherMask, cell);
+            if (value > bestValue){
+                bestValue = value;
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Wraps an encoded model, e.g. one just trained in memory.
+     * @param buffer the model in the file format
+     * @return the value model
+     */
+    public static ValueModel of(ByteBuffer buffer){
+        return new ValueModel(buffer);
+    }
+
+    private static ValueModel load(){
+        String property = System.getProperty(PATH_PROPERTY);
+        if (property != null)
+            return load(Paths.get(property));
+        URL resource = ValueModel.class.getResource(RESOURCE);
+        if (resource != null){
+            try {
+                // a class directory can be mapped; inside a jar the model is read into memory
+                if (resource.getProtocol().equals("file"))
+                    return load(Paths.get(resource.toURI()));
+                try (InputStream in = resource.openStream()){
+                    ByteBuffer buffer = ByteBuffer.allocateDirect(HEADER_BYTES + 2 * Bitboard.INDICES);
+                    buffer.put(in.readNBytes(buffer.capacity() + 1)).flip();
+                    if (isValid(buffer))
+                        return new ValueModel(buffer);
+                    LOG.warning("Invalid bundled model " + resource + ", training in memory");
+                }
+            }
+            catch (IOException | URISyntaxException | RuntimeException e){
+                LOG.log(Level.WARNING, "Cannot read " + resource + ", training in memory", e);
+            }
+        }
+        else
+            LOG.warning("No bundled " + RESOURCE + " (run ValueTrainer to create it), training in memory");
+        return train();
+    }
+
+    /**
+     * Maps the model file read-only. Falls back to training a model in memory if the file is missing or invalid.
+     * @param path the model file
+     * @return the value model
+     */
+    public static ValueModel load(Path path){
+        if (Files.isReadable(path)){
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (isValid(mapped))
+                    return new ValueModel(mapped);
+                LOG.warning("Invalid model " + path + ", training in memory");
+            }
+            catch (IOException e){
+                LOG.log(Level.WARNING, "Cannot map " + path + ", training in memory", e);
+            }
+        }
+        else
+            LOG.warning("Cannot read " + path + ", training in memory");
+        return train();
+    }
+
+    // Checks the size and header of a big-endian model
+    private static boolean isValid(ByteBuffer model){
+        return model.capacity() == HEADER_BYTES + 2 * Bitboard.INDICES && model.limit() == model.capacity()
+                && model.getInt(0) == MAGIC && model.getInt(4) == VERSION && model.getInt(8) == Bitboard.INDICES;
+    }
+
+    private static ValueModel train(){
+        long start = System.nanoTime();
+        ValueTrainer trainer = new ValueTrainer(0);
+        trainer.train(FALLBACK_EPISODES, Runtime.getRuntime().availableProcessors());
+        LOG.info(String.format("Trained %d episodes in %.1f s", FALLBACK_EPISODES, (System.nanoTime() - start) / 1e9));
+        return new ValueModel(trainer.getTable().toBuffer());
+    }
+}
@@ -0,0 +1,62 @@
+package mainPackage.Model;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Learned values of afterstates (positions right after a move), keyed by canonical base-3 index
+ * (see Bitboard.canonicalIndex with the cells of the player who just moved first).
+ * A value is the expected result for the player who just moved: 1 win, 0.5 draw, 0 loss.
+ *
+ * Values are floats kept as raw bits in an AtomicIntegerArray and updated with compare-and-set,
+ * so training threads share one table without locks.
+ */
+public class ValueTable {
+    private static final float INITIAL_VALUE = 0.5f;
+
+    private final AtomicIntegerArray values;
+
+    public ValueTable(){
+        values = new AtomicIntegerArray(Bitboard.INDICES);
+        for (int index = 0; index < Bitboard.INDICES; index++)
+            values.set(index, Float.floatToRawIntBits(INITIAL_VALUE));
+    }
+
+    /**
+     * Returns the value of an afterstate.
+     * @param index canonical index of the afterstate
+     * @return the value, between 0 and 1
+     */
+    public float get(int index){
+        return Float.intBitsToFloat(values.get(index));
+    }
+
+    /**
+     * Moves the value of an afterstate towards a target: v += rate * (target - v). Lock-free.
+     * @param index canonical index of the afterstate
+     * @param target the target value
+     * @param rate the learning rate
+     */
+    public void update(int index, float target, float rate){
+        while (true){
+            int bits = values.get(index);
+            float value = Float.intBitsToFloat(bits);
+            if (values.compareAndSet(index, bits, Float.floatToRawIntBits(value + rate * (target - value))))
+                return;
+        }
+    }
+
+    /**
+     * Encodes the table in the ValueModel file format.
+     * @return the encoded model, header included
+     */
+    public ByteBuffer toBuffer(){
+        ByteBuffer buffer = ByteBuffer.allocate(ValueModel.HEADER_BYTES + 2 * Bitboard.INDICES);
+        buffer.putInt(0, ValueModel.MAGIC).putInt(4, ValueModel.VERSION).putInt(8, Bitboard.INDICES);
+        for (int index = 0; index < Bitboard.INDICES; index++){
+            float value = Math.max(0f, Math.min(1f, get(index)));
+            buffer.putShort(ValueModel.HEADER_BYTES + 2 * index, (short) Math.round(value * ValueModel.SCALE));
+        }
+        return buffer;
+    }
+}
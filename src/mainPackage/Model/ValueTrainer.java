@@ -0,0 +1,142 @@
+package mainPackage.Model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Headless training of a ValueTable by temporal-difference learning (TD(0) on afterstates).
+ *
+ * In each episode the learner plays one side, choosing the move with the best afterstate value (or a random move
+ * with probability EXPLORATION), against one of the existing AI behaviors: AI_randomMove, AI_genericMove, or
+ * AI_bestMove in turn. After each greedy move the value of the learner's previous afterstate is moved towards the
+ * value of the new one, and the last afterstate towards the final result.
+ *
+ * Episodes run in parallel on a fork-join pool and all update the same lock-free table.
+ *
+ * Usage: ValueTrainer [episodes] [output] [seed] [threads]
+ * The core build bundles a model trained with BUNDLED_EPISODES and BUNDLED_SEED on one thread, which is reproducible.
+ */
+public class ValueTrainer {
+    public static final float LEARNING_RATE = 0.2f;
+    public static final double EXPLORATION = 0.1;
+    /**
+     * Training run of the model bundled by the core build (see core/pom.xml).
+     */
+    public static final int BUNDLED_EPISODES = 2_000_000;
+    public static final long BUNDLED_SEED = 1;
+
+    private static final List<Consumer<Game>> OPPONENTS = List.of(Game::AI_randomMove, Game::AI_genericMove,
+            Game::AI_bestMove);
+
+    private final ValueTable table;
+    private final long seed;
+
+    public ValueTrainer(long seed){
+        this.table = new ValueTable();
+        this.seed = seed;
+    }
+
+    public ValueTable getTable(){
+        return table;
+    }
+
+    /**
+     * Runs training episodes in parallel.
+     * @param episodes number of episodes
+     * @param threads number of worker threads
+     */
+    public void train(int episodes, int threads){
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> IntStream.range(0, episodes).parallel().forEach(this::episode)).join();
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    // One game between the learner and an existing AI behavior
+    private void episode(int number){
+        Game game = new Game(seed + number * 0x9E3779B97F4A7C15L);
+        SplittableRandom random = new SplittableRandom(seed ^ number);
+        game.newGame(2);
+        int learner = number % 2 == 0 ? 1 : 2;
+        int opponent = 3 - learner;
+        Consumer<Game> behavior = OPPONENTS.get((number / 2) % OPPONENTS.size());
+        int previous = -1;
+        while (game.getStatus() == Game.ONGOING){
+            if (game.getCurrentPlayer() == learner){
+                int mover = game.getMask(learner), other = game.getMask(opponent);
+                int empty = Bitboard.empty(mover, other);
+                int cell;
+                boolean explore = random.nextDouble() < EXPLORATION;
+                if (explore)
+                    cell = Bitboard.nthCell(empty, random.nextInt(Integer.bitCount(empty)));
+                else
+                    cell = greedyMove(mover, other);
+                int index = Bitboard.canonicalIndex(mover | 1 << cell, other);
+                if (previous >= 0 && !explore)
+                    table.update(previous, table.get(index), LEARNING_RATE);
+                previous = index;
+                game.makeMove(cell);
+            }
+            else {
+                // the opponent behavior plays as the AI side
+                if (game.getAI_Turn() != opponent)
+                    game.swapSides();
+                behavior.accept(game);
+            }
+        }
+        int winner = game.getWinner();
+        float result = winner == learner ? 1f : winner == 0 ? 0.5f : 0f;
+        if (previous >= 0)
+            table.update(previous, result, LEARNING_RATE);
+    }
+
+    private int greedyMove(int mover, int other){
+        int best = -1;
+        float bestValue = -1;
+        for (int empty = Bitboard.empty(mover, other); empty != 0; empty &= empty - 1){
+            int cell = Integer.numberOfTrailingZeros(empty);
+            float value = table.get(Bitboard.canonicalIndex(mover | 1 << cell, other));
+            if (value > bestValue){
+                bestValue = value;
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int episodes = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path path = Paths.get(args.length > 1 ? args[1] : ValueModel.DEFAULT_PATH);
+        if (path.toAbsolutePath().getParent() != null)
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        ValueTrainer trainer = new ValueTrainer(seed);
+        trainer.train(episodes, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        ByteBuffer buffer = trainer.getTable().toBuffer();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+        System.out.printf("[ValueTrainer]: %d episodes in %.2f s (%.0f episodes/s, %d threads, seed %d)%n",
+                episodes, seconds, episodes / seconds, threads, seed);
+        System.out.printf("[ValueTrainer]: Wrote %s (%d bytes)%n", path, Files.size(path));
+    }
+}
@@ -0,0 +1,276 @@
+package mainPackage.Server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import mainPackage.Model.Agent;
+import mainPackage.Model.Agents;
+import mainPackage.Model.Game;
+import mainPackage.Model.Position;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless server hosting many games over a small JSON/HTTP API, on the JDK's built-in HTTP server.
+ *
+ * POST   /games?human=1&level=2      starts a game (human 1 plays X, 2 plays O; level as in the game window)
+ * GET    /games/{id}                 returns the game state
+ * POST   /games/{id}/move?row=0&col=2 plays the human's move
+ * POST   /games/{id}/ai              plays the computer's move
+ * DELETE /games/{id}                 ends the game
+ *
+ * Requests are handled by a fixed pool of worker threads. The agents (see Agents.levels) keep their engines
+ * process-wide (MoveTable, ValueModel, a Monte Carlo search per thread), so a session is only its game state.
+ *
+ * The server binds to the loopback interface unless given another address, since anyone who can reach it can play
+ * any game whose id they know.
+ *
+ * Usage: GameServer [port] [threads] [idle timeout seconds] [max sessions] [bind address]
+ */
+public class GameServer {
+    private static final Logger LOG = Logger.getLogger(GameServer.class.getName());
+
+    private final HttpServer server;
+    private final SessionTable sessions;
+    private final ExecutorService workers;
+
+    /**
+     * Creates a server listening on the loopback interface.
+     * @param port the port, or 0 for any free port
+     * @param threads number of worker threads
+     * @param sessions the session table
+     */
+    public GameServer(int port, int threads, SessionTable sessions) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), threads, sessions);
+    }
+
+    /**
+     * Creates a server listening on the given address, e.g. a wildcard address to accept remote clients.
+     * @param address the address and port to bind
+     * @param threads number of worker threads
+     * @param sessions the session table
+     */
+    public GameServer(InetSocketAddress address, int threads, SessionTable sessions) throws IOException {
+        this.sessions = sessions;
+        server = HttpServer.create(address, 0);
+        workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "Server-Worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(workers);
+        server.createContext("/games", this::handle);
+    }
+
+    public void start(){
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and ends all sessions' eviction.
+     */
+    public void stop(){
+        server.stop(0);
+        workers.shutdown();
+        sessions.shutdown();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     * @return the port
+     */
+    public int getPort(){
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        }
+        catch (NumberFormatException e){
+            send(exchange, 400, error("Invalid number: " + e.getMessage()));
+        }
+        catch (RuntimeException e){
+            LOG.log(Level.SEVERE, "Request " + exchange.getRequestURI() + " failed", e);
+            send(exchange, 500, error("Internal error"));
+        }
+        finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        // "/games/{id}/{action}" -> ["", "games", id, action]
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        // the context also matches other paths starting with /games, e.g. /gamesfoo
+        if (path.length < 2 || !path[1].equals("games")){
+            send(exchange, 404, error("No such resource"));
+            return;
+        }
+
+        if (path.length == 2){
+            if (!method.equals("POST")){
+                send(exchange, 405, error("Use POST to start a game"));
+                return;
+            }
+            int human = Integer.parseInt(query.getOrDefault("human", "1"));
+            int level = Integer.parseInt(query.getOrDefault("level", "2"));
+            if ((human != 1 && human != 2) || Agents.level(level) == null){
+                StringBuilder levels = new StringBuilder();
+                for (Agent agent : Agents.levels())
+                    levels.append(levels.length() == 0 ? "" : ", ").append(agent.getLevel());
+                send(exchange, 400, error("human must be 1 or 2 and level one of " + levels));
+                return;
+            }
+            Session session = sessions.create(human, level);
+            if (session == null){
+                send(exchange, 503, error("Too many games"));
+                return;
+            }
+            send(exchange, 201, state(session));
+            return;
+        }
+
+        Session session = path.length >= 3 ? sessions.get(path[2]) : null;
+        if (session == null || path.length > 4){
+            send(exchange, 404, error("No such game"));
+            return;
+        }
+        String action = path.length == 4 ? path[3] : "";
+        switch (method + " " + action){
+            case "GET ":
+                // reads the published snapshot, so it does not wait for a move in progress
+                send(exchange, 200, state(session));
+                break;
+            case "DELETE ":
+                sessions.remove(session.getId());
+                send(exchange, 204, null);
+                break;
+            case "POST move":
+                humanMove(exchange, session, Integer.parseInt(query.getOrDefault("row", "-1")),
+                        Integer.parseInt(query.getOrDefault("col", "-1")));
+                break;
+            case "POST ai":
+                aiMove(exchange, session);
+                break;
+            default:
+                send(exchange, 405, error("Unsupported request: " + method + " " + action));
+        }
+    }
+
+    private void humanMove(HttpExchange exchange, Session session, int row, int col) throws IOException {
+        synchronized (session){
+            Game game = session.getGame();
+            if (game.getStatus() != Game.ONGOING || game.getCurrentPlayer() != game.getPlayerTurn()){
+                send(exchange, 409, error("Not the human's turn"));
+                return;
+            }
+            int moves = game.getMoveCount();
+            if (row >= 0 && row < Game.ROWS && col >= 0 && col < Game.COLS)
+                game.cPlayerMove(row, col);
+            if (game.getMoveCount() == moves){
+                send(exchange, 409, error("Illegal move"));
+                return;
+            }
+            send(exchange, 200, state(session));
+        }
+    }
+
+    private void aiMove(HttpExchange exchange, Session session) throws IOException {
+        synchronized (session){
+            Game game = session.getGame();
+            if (game.getStatus() != Game.ONGOING || game.getCurrentPlayer() != game.getAI_Turn()){
+                send(exchange, 409, error("Not the computer's turn"));
+                return;
+            }
+            Agents.level(session.getLevel()).move(game);
+            send(exchange, 200, state(session));
+        }
+    }
+
+    /**
+     * Describes a session as JSON from the game's last published position. No lock is needed.
+     */
+    private static String state(Session session){
+        Position position = session.getPosition();
+        return "{\"id\":\"" + session.getId() + "\""
+                + ",\"board\":\"" + position + "\""
+                + ",\"human\":" + position.getPlayerTurn()
+                + ",\"level\":" + session.getLevel()
+                + ",\"agent\":\"" + Agents.level(session.getLevel()).getName() + "\""
+                + ",\"next\":" + position.getCurrentPlayer()
+                + ",\"status\":\"" + statusName(position.getStatus()) + "\""
+                + ",\"winner\":" + position.getWinner()
+                + ",\"moves\":" + position.getMoveCount()
+                + ",\"lastMove\":" + position.getLastMove()
+                + "}";
+    }
+
+    private static String statusName(int status){
+        switch (status){
+            case Game.ONGOING:
+                return "ongoing";
+            case Game.DRAW:
+                return "draw";
+            case Game.AI_WIN:
+                return "computer";
+            default:
+                return "human";
+        }
+    }
+
+    private static String error(String message){
+        return "{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+    }
+
+    private static Map<String, String> parseQuery(String query){
+        Map<String, String> params = new HashMap<>();
+        if (query == null)
+            return params;
+        for (String pair : query.split("&")){
+            int split = pair.indexOf('=');
+            if (split > 0)
+                params.put(pair.substring(0, split), pair.substring(split + 1));
+        }
+        return params;
+    }
+
+    private static void send(HttpExchange exchange, int code, String body) throws IOException {
+        if (body == null){
+            exchange.sendResponseHeaders(code, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()){
+            out.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long idleSeconds = args.length > 2 ? Long.parseLong(args[2]) : 600;
+        int capacity = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+        InetAddress address = args.length > 4 ? InetAddress.getByName(args[4]) : InetAddress.getLoopbackAddress();
+
+        // load the agents' shared tables and models before the first request
+        Agents.warmUp().join();
+
+        GameServer server = new GameServer(new InetSocketAddress(address, port), threads, new SessionTable(capacity, idleSeconds));
+        server.start();
+        System.out.println("[GameServer]: Listening on " + address.getHostAddress() + ":" + server.getPort() + " with " + threads + " workers");
+    }
+}
@@ -0,0 +1,63 @@
+package mainPackage.Server;
+
+import mainPackage.Model.Game;
+import mainPackage.Model.Position;
+
+/**
+ * One game hosted by the server. All access to the game goes through the session's lock.
+ */
+public class Session {
+    private final String id;
+    private final Game game;
+    private final int level;
+    /**
+     * System.nanoTime() of the last request, read by the eviction sweep.
+     */
+    private volatile long lastAccess;
+
+    Session(String id, Game game, int level){
+        this.id = id;
+        this.game = game;
+        this.level = level;
+        touch();
+    }
+
+    /**
+     * Marks the session as used now.
+     */
+    void touch(){
+        lastAccess = System.nanoTime();
+    }
+
+    public String getId(){
+        return id;
+    }
+
+    /**
+     * Returns the game. Callers must hold the session's lock (synchronized on the session).
+     * @return the game
+     */
+    public Game getGame(){
+        return game;
+    }
+
+    /**
+     * Returns a snapshot of the game as of its last move. Unlike getGame, this needs no lock.
+     * @return the game's position
+     */
+    public Position getPosition(){
+        return game.getPosition();
+    }
+
+    /**
+     * Returns the AI level (rationality) the computer plays at.
+     * @return the AI level
+     */
+    public int getLevel(){
+        return level;
+    }
+
+    public long getLastAccess(){
+        return lastAccess;
+    }
+}
@@ -0,0 +1,131 @@
+package mainPackage.Server;
+
+import mainPackage.Model.Game;
+
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Sessions of the game server, keyed by a random hexadecimal id. Ids are 128 bits from a SecureRandom, since
+ * knowing a session's id is all it takes to play or end its game.
+ * A background sweep removes sessions that have not been used for the idle timeout.
+ */
+public class SessionTable {
+    private static final Logger LOG = Logger.getLogger(SessionTable.class.getName());
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private final long idleNanos;
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * @param capacity maximum number of live sessions
+     * @param idleTimeoutSeconds sessions unused for this long are removed
+     */
+    public SessionTable(int capacity, long idleTimeoutSeconds){
+        this.capacity = capacity;
+        this.idleNanos = TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+        sweeper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "Session-Sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, idleTimeoutSeconds / 4);
+        sweeper.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts a new game session.
+     * @param playerTurn the human's turn (1 plays X, 2 plays O)
+     * @param level the AI level
+     * @return the session, or null if the table is full
+     */
+    public Session create(int playerTurn, int level){
+        if (size.incrementAndGet() > capacity){
+            size.decrementAndGet();
+            return null;
+        }
+        Game game = new Game();
+        game.newGame(playerTurn);
+        while (true){
+            String id = newId();
+            Session session = new Session(id, game, level);
+            if (sessions.putIfAbsent(id, session) == null)
+                return session;
+        }
+    }
+
+    private String newId(){
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        StringBuilder id = new StringBuilder(2 * bytes.length);
+        for (byte b : bytes)
+            id.append(Character.forDigit(b >> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return id.toString();
+    }
+
+    /**
+     * Returns a session and marks it as used.
+     * @param id the session id
+     * @return the session, or null if there is none (or it was evicted)
+     */
+    public Session get(String id){
+        Session session = sessions.get(id);
+        if (session != null)
+            session.touch();
+        return session;
+    }
+
+    /**
+     * Ends a session.
+     * @param id the session id
+     * @return true if the session existed
+     */
+    public boolean remove(String id){
+        if (sessions.remove(id) == null)
+            return false;
+        size.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * Returns the number of live sessions.
+     * @return the session count
+     */
+    public int size(){
+        return size.get();
+    }
+
+    /**
+     * Removes every session idle for longer than the timeout.
+     * @return the number of sessions removed
+     */
+    public int evictIdle(){
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Session session : sessions.values()){
+            // remove(key, value) fails if a client ended the session meanwhile, so it is not counted twice
+            if (now - session.getLastAccess() > idleNanos && sessions.remove(session.getId(), session)){
+                size.decrementAndGet();
+                evicted++;
+            }
+        }
+        if (evicted > 0)
+            LOG.info("Evicted " + evicted + " idle sessions, " + size() + " left");
+        return evicted;
+    }
+
+    /**
+     * Stops the eviction sweep.
+     */
+    public void shutdown(){
+        sweeper.shutdownNow();
+    }
+}